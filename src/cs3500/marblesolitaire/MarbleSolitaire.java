@@ -2,15 +2,26 @@ package cs3500.marblesolitaire;
 
 import cs3500.marblesolitaire.controller.MarbleSolitaireController;
 import cs3500.marblesolitaire.controller.MarbleSolitaireControllerImpl;
+import cs3500.marblesolitaire.controller.MarbleSolitaireReplayController;
 import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
 import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
 import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
 import cs3500.marblesolitaire.model.hw04.TriangleSolitaireTextView;
+import cs3500.marblesolitaire.server.GameServer;
+import cs3500.marblesolitaire.view.FlushPolicy;
 import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
 import cs3500.marblesolitaire.view.MarbleSolitaireView;
+import cs3500.marblesolitaire.view.OutputSink;
+import cs3500.marblesolitaire.view.RenderMode;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main class for the Marble Solitaire game.
@@ -25,6 +36,16 @@ public final class MarbleSolitaire {
      * - Board type (required): english, european, or triangular
      * - Size (optional): -size N where N is the board size
      * - Hole position (optional): -hole R C where R and C are row and column
+     * - Rendering (optional): -render full, cached or ansi; cached redraws only the rows
+     * a move changed, and ansi draws the board once and then updates it in place on an
+     * ANSI terminal
+     * - Flushing (optional): -flush prompt, full or end; output is buffered and written
+     * before each prompt (the default), whenever the buffer fills, or when the game ends
+     * - Server (optional): -serve PORT plays a new game on every TCP connection to PORT
+     * on the loopback interface instead of on the console
+     * - Replay (optional): -replay FILE... replays the moves recorded in each file on
+     * a new game instead of playing interactively, and prints only the rejected moves,
+     * the final board and the score of each
      *
      * @param args command-line arguments
      */
@@ -39,6 +60,10 @@ public final class MarbleSolitaire {
         Integer size = null;
         Integer holeRow = null;
         Integer holeCol = null;
+        RenderMode mode = RenderMode.FULL;
+        FlushPolicy policy = FlushPolicy.EACH_PROMPT;
+        Integer port = null;
+        List<String> replayFiles = new ArrayList<>();
 
         // Parse optional arguments
         for (int i = 1; i < args.length; i++) {
@@ -59,45 +84,183 @@ public final class MarbleSolitaire {
                     System.err.println("Error: Invalid hole position");
                     return;
                 }
+            } else if (args[i].equals("-render") && i + 1 < args.length) {
+                try {
+                    mode = RenderMode.valueOf(args[i + 1].toUpperCase());
+                    i++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error: Invalid render mode. Use full, cached, or ansi");
+                    return;
+                }
+            } else if (args[i].equals("-flush") && i + 1 < args.length) {
+                switch (args[i + 1].toLowerCase()) {
+                    case "prompt":
+                        policy = FlushPolicy.EACH_PROMPT;
+                        break;
+                    case "full":
+                        policy = FlushPolicy.WHEN_FULL;
+                        break;
+                    case "end":
+                        policy = FlushPolicy.GAME_END;
+                        break;
+                    default:
+                        System.err.println("Error: Invalid flush policy. Use prompt, full, or end");
+                        return;
+                }
+                i++;
+            } else if (args[i].equals("-serve") && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[i + 1]);
+                    i++;
+                } catch (NumberFormatException e) {
+                    System.err.println("Error: Invalid port");
+                    return;
+                }
+            } else if (args[i].equals("-replay")) {
+                while (i + 1 < args.length && !args[i + 1].startsWith("-")) {
+                    replayFiles.add(args[++i]);
+                }
             }
         }
 
+        if (!replayFiles.isEmpty()) {
+            replay(gameType, size, holeRow, holeCol, replayFiles);
+            return;
+        }
+        if (port != null) {
+            serve(port, gameType, size, holeRow, holeCol, mode);
+            return;
+        }
+
         // Create the appropriate model based on game type and arguments
-        MarbleSolitaireModel model;
-        MarbleSolitaireView view;
+        MarbleSolitaireModel model = createModelOrReport(gameType, size, holeRow, holeCol);
+        if (model == null) {
+            return;
+        }
+        OutputSink out = new OutputSink(System.out, policy);
+        MarbleSolitaireView view = createView(gameType, model, out, mode);
+
+        // Create controller and start the game
+        Readable input = new InputStreamReader(System.in);
+        MarbleSolitaireController controller = new MarbleSolitaireControllerImpl(model, view, input);
 
+        // Play the game, writing whatever it printed even if its input runs out
+        try {
+            controller.playGame();
+        } finally {
+            flushQuietly(out);
+        }
+    }
+
+    private static void flushQuietly(OutputSink out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            // System.out reports no errors
+        }
+    }
+
+    /**
+     * Replays each file on a new game, writing through one large buffer that is
+     * flushed when it fills and after each game instead of after every line.
+     */
+    private static void replay(String gameType, Integer size, Integer row, Integer col,
+                               List<String> files) {
+        OutputSink out = new OutputSink(System.out, FlushPolicy.WHEN_FULL, 1 << 16);
         try {
-            switch (gameType) {
-                case "english":
-                    model = createEnglishModel(size, holeRow, holeCol);
-                    view = new MarbleSolitaireTextView(model, System.out);
-                    break;
-
-                case "european":
-                    model = createEuropeanModel(size, holeRow, holeCol);
-                    view = new MarbleSolitaireTextView(model, System.out);
-                    break;
-
-                case "triangular":
-                    model = createTriangularModel(size, holeRow, holeCol);
-                    view = new TriangleSolitaireTextView(model, System.out);
-                    break;
-
-                default:
-                    System.err.println("Error: Unknown game type. Use english, european, or triangular");
+            for (String file : files) {
+                MarbleSolitaireModel model = createModelOrReport(gameType, size, row, col);
+                if (model == null) {
                     return;
+                }
+                MarbleSolitaireView view = createView(gameType, model, out, RenderMode.FULL);
+
+                try (Reader input = Files.newBufferedReader(Paths.get(file))) {
+                    if (files.size() > 1) {
+                        out.append("Replay of " + file + "\n");
+                    }
+                    new MarbleSolitaireReplayController(model, view, input).playGame();
+                } catch (IOException e) {
+                    out.flush();
+                    System.err.println("Error: Could not read " + file);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error: Could not write output");
+        }
+    }
+
+    /**
+     * Serves a new game of the given variant on every connection until the process is
+     * stopped.
+     */
+    private static void serve(int port, String gameType, Integer size, Integer row, Integer col,
+                              RenderMode mode) {
+        // Report a bad configuration once, before any player connects
+        if (createModelOrReport(gameType, size, row, col) == null) {
+            return;
+        }
+
+        try (GameServer server = new GameServer(port, (in, out) -> {
+            MarbleSolitaireModel model = createModel(gameType, size, row, col);
+            MarbleSolitaireView view = createView(gameType, model, out, mode);
+            return new MarbleSolitaireControllerImpl(model, view, in);
+        })) {
+            server.start();
+            System.out.println("Serving " + gameType + " games on port " + server.getPort());
+            server.awaitClose();
+        } catch (IOException e) {
+            System.err.println("Error: Could not listen on port " + port + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates a model of a variant, or reports why it cannot be created on standard
+     * error and returns null.
+     */
+    private static MarbleSolitaireModel createModelOrReport(String gameType, Integer size,
+                                                            Integer row, Integer col) {
+        try {
+            MarbleSolitaireModel model = createModel(gameType, size, row, col);
+            if (model == null) {
+                System.err.println("Error: Unknown game type. Use english, european, or triangular");
             }
+            return model;
         } catch (IllegalArgumentException e) {
             System.err.println("Error creating game: " + e.getMessage());
-            return;
+            return null;
         }
+    }
 
-        // Create controller and start the game
-        Readable input = new InputStreamReader(System.in);
-        MarbleSolitaireController controller = new MarbleSolitaireControllerImpl(model, view, input);
+    /**
+     * Creates the text view for a model of a variant.
+     */
+    private static MarbleSolitaireView createView(String gameType, MarbleSolitaireModel model,
+                                                  Appendable out, RenderMode mode) {
+        if ("triangular".equals(gameType)) {
+            return new TriangleSolitaireTextView(model, out, mode);
+        }
+        return new MarbleSolitaireTextView(model, out, mode);
+    }
 
-        // Play the game
-        controller.playGame();
+    /**
+     * Creates a model of a variant, or returns null if the variant is unknown.
+     */
+    private static MarbleSolitaireModel createModel(String gameType, Integer size, Integer row,
+                                                    Integer col) {
+        switch (gameType) {
+            case "english":
+                return createEnglishModel(size, row, col);
+            case "european":
+                return createEuropeanModel(size, row, col);
+            case "triangular":
+                return createTriangularModel(size, row, col);
+            default:
+                return null;
+        }
     }
 
     /**
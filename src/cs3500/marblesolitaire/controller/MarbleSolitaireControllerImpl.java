@@ -5,7 +5,6 @@ import cs3500.marblesolitaire.view.MarbleSolitaireView;
 
 import java.io.IOException;
 import java.util.NoSuchElementException;
-import java.util.Scanner;
 
 public class MarbleSolitaireControllerImpl implements MarbleSolitaireController {
     private final MarbleSolitaireModel model;
@@ -38,7 +37,8 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
      */
     @Override
     public void playGame() throws IllegalStateException {
-        Scanner scanner = new Scanner(readable);
+        // Buffered output is written whenever the controller may have to wait for input
+        TokenReader tokens = new TokenReader(readable, this::awaitInput);
         while (!model.isGameOver()) {
             //  Render the current state
             renderGameState();
@@ -46,42 +46,58 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
             int fromRow, fromColumn, toRow, toColumn;
             try {
                 // Get from-row
-                fromRow = getNextValidInput(scanner);
+                fromRow = getNextValidInput(tokens);
                 // User quit
                 if (fromRow == -1) {
                     handleQuit();
                     return;
                 }
                 // Get from-column
-                fromColumn = getNextValidInput(scanner);
+                fromColumn = getNextValidInput(tokens);
                 // User quit
                 if (fromColumn == -1) {
                     handleQuit();
                     return;
                 }
                 // Get to-row
-                toRow = getNextValidInput(scanner);
+                toRow = getNextValidInput(tokens);
                 // User quit
                 if (toRow == -1) {
                     handleQuit();
                     return;
                 }
                 // Get to-column
-                toColumn = getNextValidInput(scanner);
+                toColumn = getNextValidInput(tokens);
                 // User quit
                 if (toColumn == -1) {
                     handleQuit();
                     return;
                 }
             } catch (NoSuchElementException e) {
-                throw new IllegalStateException("Unable to read input", e);
+                // Write the output held back so far before giving up
+                IllegalStateException failure = new IllegalStateException("Unable to read input", e);
+                try {
+                    view.endOfOutput();
+                } catch (IOException suppressed) {
+                    failure.addSuppressed(suppressed);
+                }
+                throw failure;
             }
 
             // Make the move (convert from 1-based to 0-based indexing)
+            String errorMsg;
             try {
-                model.move(fromRow - 1, fromColumn - 1, toRow - 1, toColumn - 1);
+                MarbleSolitaireModel.MoveStatus status =
+                        model.tryMove(fromRow - 1, fromColumn - 1, toRow - 1, toColumn - 1);
+                errorMsg = status == MarbleSolitaireModel.MoveStatus.OK
+                        ? null : model.getMoveMessage(status);
             } catch (Exception e) {
-                String errorMsg = e.getMessage() != null ? e.getMessage() : "";
+                // A model that only implements move reports an illegal move by throwing
+                errorMsg = e.getMessage() != null ? e.getMessage() : "";
+            }
+            if (errorMsg == null) {
+                view.moveMade(fromRow - 1, fromColumn - 1, toRow - 1, toColumn - 1);
+            } else {
                 transmitMessage("Invalid move. Play again. " + errorMsg + "\n");
             }
         }
@@ -91,32 +107,22 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
     }
 
     /**
-     * Gets the next valid input from the scanner.
+     * Gets the next valid input from the token reader.
      *
-     * @param scanner the scanner to read from
+     * @param tokens the tokens to read from
      * @return the next positive integer, or -1 if user quits
      * @throws NoSuchElementException if no more input is available
      */
-    private int getNextValidInput(Scanner scanner) {
+    private int getNextValidInput(TokenReader tokens) {
         while (true) {
-            if (!scanner.hasNext()) {
-                throw new NoSuchElementException("No more input available");
-            }
-
-            String input = scanner.next();
+            int input = tokens.next();
             // Check for quit
-            if (input.equalsIgnoreCase("q")) {
+            if (input == TokenReader.QUIT) {
                 return -1;
             }
-            // Try to parse as positive integer
-            try {
-                int val = Integer.parseInt(input);
-                if (val > 0) {
-                    return val;
-                }
-
-            } catch (NumberFormatException e) {
-                // Not a valid number, continues loop
+            // Positive integers are valid
+            if (input != TokenReader.INVALID) {
+                return input;
             }
             // Invalid input, ask for re-entry
             transmitMessage("Re-enter a positive integer greater than 0: ");
@@ -152,6 +158,32 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
         }
     }
 
+    /**
+     * Lets the view write buffered output before the controller waits for input.
+     *
+     * @throws IllegalStateException if transmission fails
+     */
+    private void awaitInput() throws IllegalStateException {
+        try {
+            view.awaitingInput();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transmit output", e);
+        }
+    }
+
+    /**
+     * Lets the view write all its buffered output once the game has ended.
+     *
+     * @throws IllegalStateException if transmission fails
+     */
+    private void endOutput() throws IllegalStateException {
+        try {
+            view.endOfOutput();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transmit output", e);
+        }
+    }
+
     /**
      * Handles the quit scenario
      */
@@ -165,6 +197,7 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
         }
         transmitMessage("\n");
         transmitMessage("Score: " + model.getScore() + "\n");
+        endOutput();
     }
 
     /**
@@ -180,5 +213,6 @@ public class MarbleSolitaireControllerImpl implements MarbleSolitaireController
         }
         transmitMessage("\n");
         transmitMessage("Score: " + model.getScore() + "\n");
+        endOutput();
     }
 }
@@ -0,0 +1,145 @@
+package cs3500.marblesolitaire.controller;
+
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.view.MarbleSolitaireView;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Replays a recorded game through a model without rendering every move.
+ * <p>
+ * Moves are read as groups of four positive integers (from-row, from-column, to-row,
+ * to-column, starting at 1), from the same tokens the interactive controller accepts.
+ * Each move is applied as it is read. Only a move the model rejects, or an input that
+ * is not a positive integer, produces output while replaying; the board and score are
+ * rendered once when the replay ends. The replay ends when the game is over, at the
+ * quit token or at the end of the input, and the rest of the input is not read.
+ */
+public class MarbleSolitaireReplayController implements MarbleSolitaireController {
+    private final MarbleSolitaireModel model;
+    private final MarbleSolitaireView view;
+    private final Readable readable;
+    private int applied;
+    private int rejected;
+
+    /**
+     * Constructs a replay controller.
+     *
+     * @param model    the game model to replay the moves in
+     * @param view     the view to render the result with
+     * @param readable the recorded moves
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public MarbleSolitaireReplayController(MarbleSolitaireModel model, MarbleSolitaireView view,
+                                           Readable readable) throws IllegalArgumentException {
+        if (model == null || view == null || readable == null) {
+            throw new IllegalArgumentException("Model, view, and readable cannot be null");
+        }
+        this.model = model;
+        this.view = view;
+        this.readable = readable;
+    }
+
+    /**
+     * Replays the moves, then renders the final board, the score and how many moves
+     * were applied and rejected.
+     *
+     * @throws IllegalStateException if unable to transmit output
+     */
+    @Override
+    public void playGame() throws IllegalStateException {
+        TokenReader tokens = new TokenReader(readable);
+        applied = 0;
+        rejected = 0;
+        int[] move = new int[4];
+        int read = 0;
+        String ending = "End of moves\n";
+        while (!model.isGameOver()) {
+            int token;
+            try {
+                token = tokens.next();
+            } catch (NoSuchElementException e) {
+                if (read > 0) {
+                    transmitMessage("Incomplete move at end of input\n");
+                }
+                break;
+            }
+            if (token == TokenReader.QUIT) {
+                ending = "Game quit!\n";
+                break;
+            }
+            if (token == TokenReader.INVALID) {
+                transmitMessage("Skipped input that is not a positive integer\n");
+                continue;
+            }
+            move[read++] = token;
+            if (read == move.length) {
+                read = 0;
+                String reason;
+                try {
+                    MarbleSolitaireModel.MoveStatus status =
+                            model.tryMove(move[0] - 1, move[1] - 1, move[2] - 1, move[3] - 1);
+                    reason = status == MarbleSolitaireModel.MoveStatus.OK
+                            ? null : status.getMessage();
+                } catch (Exception e) {
+                    // A model that only implements move reports an illegal move by throwing
+                    reason = e.getMessage() != null ? e.getMessage() : "";
+                }
+                if (reason == null) {
+                    applied++;
+                } else {
+                    rejected++;
+                    transmitMessage("Rejected move " + (applied + rejected) + ": " + move[0] + " "
+                            + move[1] + " " + move[2] + " " + move[3] + " (" + reason + ")\n");
+                }
+            }
+        }
+        if (model.isGameOver()) {
+            ending = "Game over!\n";
+        }
+
+        transmitMessage(ending);
+        try {
+            view.renderBoard();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transmit output", e);
+        }
+        transmitMessage("\n");
+        transmitMessage("Score: " + model.getScore() + "\n");
+        transmitMessage("Moves applied: " + applied + ", rejected: " + rejected + "\n");
+        try {
+            view.endOfOutput();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transmit output", e);
+        }
+    }
+
+    /**
+     * Returns the number of moves applied by the last replay.
+     */
+    public int getAppliedMoves() {
+        return applied;
+    }
+
+    /**
+     * Returns the number of moves rejected by the last replay.
+     */
+    public int getRejectedMoves() {
+        return rejected;
+    }
+
+    /**
+     * Transmits a message to the view.
+     *
+     * @param message the message to transmit
+     * @throws IllegalStateException if transmission fails
+     */
+    private void transmitMessage(String message) throws IllegalStateException {
+        try {
+            view.renderMessage(message);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not transmit output", e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package cs3500.marblesolitaire.controller;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads whitespace-separated tokens from a Readable and classifies each one as the
+ * controller needs it, without building a String per token.
+ * <p>
+ * Tokens are split exactly where a Scanner with its default delimiter would split
+ * them, at runs of Character.isWhitespace characters. A token is read character by
+ * character from a reusable CharBuffer, so it may span any number of refills, and is
+ * reduced on the fly to one of three answers: the quit token q or Q, a positive int
+ * as Integer.parseInt would read it (an optional '+', then decimal digits, without
+ * overflow), or anything else. As with a Scanner, an IOException from the Readable
+ * ends the input.
+ */
+final class TokenReader {
+    /**
+     * Returned by next for the quit token.
+     */
+    static final int QUIT = -1;
+    /**
+     * Returned by next for a token that is neither the quit token nor a positive int.
+     */
+    static final int INVALID = 0;
+
+    private static final int BUFFER_CHARS = 8192;
+
+    private final Readable source;
+    private final Runnable beforeRead;
+    private final CharBuffer buffer = CharBuffer.allocate(BUFFER_CHARS);
+    private boolean ended;
+
+    /**
+     * Creates a reader of the tokens of a source.
+     *
+     * @param source the input to read
+     */
+    TokenReader(Readable source) {
+        this(source, () -> { });
+    }
+
+    /**
+     * Creates a reader of the tokens of a source, with an action to run whenever the
+     * tokens read so far are used up and the source has to be read again, which is
+     * when reading may have to wait for input.
+     *
+     * @param source     the input to read
+     * @param beforeRead the action to run before each read of the source
+     */
+    TokenReader(Readable source, Runnable beforeRead) {
+        this.source = source;
+        this.beforeRead = beforeRead;
+        buffer.limit(0);
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the token as a positive int, QUIT or INVALID
+     * @throws NoSuchElementException if the input has no more tokens
+     */
+    int next() {
+        // Skip the delimiters before the token
+        char c;
+        do {
+            if (!buffer.hasRemaining() && !fill()) {
+                throw new NoSuchElementException("No more input available");
+            }
+            c = buffer.get();
+        } while (Character.isWhitespace(c));
+
+        int length = 0;
+        boolean number = true;
+        boolean digits = false;
+        int value = 0;
+        char first = c;
+        while (true) {
+            if (length == 0 && c == '+') {
+                // A leading plus sign is accepted by Integer.parseInt
+                length++;
+            } else {
+                int digit = Character.digit(c, 10);
+                if (digit < 0 || value > (Integer.MAX_VALUE - digit) / 10) {
+                    number = false;
+                } else {
+                    value = value * 10 + digit;
+                    digits = true;
+                }
+                length++;
+            }
+            if (!buffer.hasRemaining() && !fill()) {
+                break;
+            }
+            c = buffer.get();
+            if (Character.isWhitespace(c)) {
+                break;
+            }
+        }
+
+        if (length == 1 && (first == 'q' || first == 'Q')) {
+            return QUIT;
+        }
+        return number && digits && value > 0 ? value : INVALID;
+    }
+
+    /**
+     * Refills the empty buffer from the source.
+     *
+     * @return false if the input has ended
+     */
+    private boolean fill() {
+        if (!ended) {
+            beforeRead.run();
+        }
+        while (!ended) {
+            buffer.clear();
+            int read;
+            try {
+                read = source.read(buffer);
+            } catch (IOException e) {
+                read = -1;
+            }
+            buffer.flip();
+            if (read < 0) {
+                ended = true;
+            } else if (buffer.hasRemaining()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
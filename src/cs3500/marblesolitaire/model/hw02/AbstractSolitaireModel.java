@@ -1,5 +1,8 @@
 package cs3500.marblesolitaire.model.hw02;
 
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
 /**
  * Abstract base class for Solitaire models with rectangular grids (English and European).
  * <p>
@@ -21,10 +24,50 @@ package cs3500.marblesolitaire.model.hw02;
  * <p>
  * This refactoring does not change any public interfaces or add new public methods,
  * maintaining full backward compatibility.
+ * <p>
+ * BOARD REPRESENTATION:
+ * The board is stored as two bitboards rather than a grid of SlotState references.
+ * Slot (row, col) maps to bit (row * boardSize + col); one bitboard marks the valid
+ * holes and the other marks the holes holding a marble. The standard 7x7 boards fit
+ * in a single long, where moves are found with shift-and-mask operations on the whole
+ * board at once. getSlotAt rebuilds the SlotState from the two bits, so views and
+ * controllers are unaffected by the change.
+ * <p>
+ * The validity bitboard is shared through the geometry, so a model only owns the
+ * marble bits: one bit per slot of the grid. An arm thickness of 101 (a 301 x 301
+ * grid) costs about 11 KB per model instead of the 360 KB or more of references a
+ * SlotState[][] would need. Boards larger than one word are scanned a word at a time,
+ * skipping runs of empty slots with numberOfTrailingZeros.
+ * <p>
+ * The valid-hole mask and the table of every possible jump come from a BoardGeometry
+ * that is built once per variant and size and shared by all models of that shape,
+ * so isValidPosition is only evaluated while that geometry is built.
+ * <p>
+ * The model also keeps a running marble count and a running count of legal jumps.
+ * A move can only create or destroy jumps that touch one of the three slots it
+ * changes, so both counts are updated from that neighbourhood alone, and getScore
+ * and isGameOver answer in constant time whatever the board size.
+ * <p>
+ * Every move is recorded in a MoveHistory by its jump number. Flipping the three
+ * bits of a jump is its own inverse, so undo flips them back and the counts are
+ * updated the same way as for a move.
+ * <p>
+ * The Zobrist hash of the position is kept alongside the counts: each flipped slot
+ * XORs its key from the geometry in or out, three XORs per move, undo or redo.
+ * <p>
+ * A BoardSnapshot copies the marble bitboard, and a model can be rebuilt from one
+ * by the snapshot constructors of the subclasses.
  */
 public abstract class AbstractSolitaireModel implements MarbleSolitaireModel {
     protected final int armThickness;
-    protected final SlotState[][] board;
+    private final int boardSize;
+    private final BoardGeometry geometry;
+    private final long[] valid;
+    private final long[] marbles;
+    private int score;
+    private int legalMoves;
+    private long zobristHash;
+    private final MoveHistory history;
 
     /**
      * Constructor for abstract solitaire model.
@@ -40,20 +83,49 @@ public abstract class AbstractSolitaireModel implements MarbleSolitaireModel {
         }
 
         this.armThickness = armThickness;
-        this.board = new SlotState[getBoardSize()][getBoardSize()];
-
-        // Initialize entire board
-        for (int r = 0; r < getBoardSize(); r++) {
-            for (int c = 0; c < getBoardSize(); c++) {
-                board[r][c] = isValidPosition(r, c) ? SlotState.Marble : SlotState.Invalid;
-            }
-        }
+        this.boardSize = armThickness * 3 - 2;
+        this.geometry = BoardGeometry.rectangular(getClass().getName(), boardSize,
+                this::isValidPosition);
+        this.valid = geometry.validMask();
 
         // Validate and set empty position
-        if (!isValidPosition(sRow, sCol)) {
+        int empty = geometry.cellIndex(sRow, sCol);
+        if (empty < 0) {
             throw new IllegalArgumentException("Invalid empty cell position (" + sRow + "," + sCol + ")");
         }
-        board[sRow][sCol] = SlotState.Empty;
+        this.marbles = valid.clone();
+        marbles[empty >>> 6] &= ~(1L << empty);
+
+        this.score = countMarbles();
+        this.legalMoves = countLegalMoves();
+        this.zobristHash = geometry.zobristHash(marbles);
+        // Every move removes a marble, so a game has fewer moves than marbles
+        this.history = new MoveHistory(score - 1);
+    }
+
+    /**
+     * Constructor restoring a model from a snapshot of a board of the same variant.
+     *
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot is of another board
+     */
+    protected AbstractSolitaireModel(BoardSnapshot snapshot) {
+        this.armThickness = (snapshot.getBoardSize() + 2) / 3;
+        this.boardSize = snapshot.getBoardSize();
+        this.geometry = BoardGeometry.rectangular(getClass().getName(), boardSize,
+                this::isValidPosition);
+        if (snapshot.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Snapshot of " + snapshot.getGeometry()
+                    + " cannot be restored as " + geometry);
+        }
+        this.valid = geometry.validMask();
+        this.marbles = snapshot.getMarbles();
+
+        this.score = countMarbles();
+        this.legalMoves = countLegalMoves();
+        this.zobristHash = geometry.zobristHash(marbles);
+        // Every move removes a marble, so a game has fewer moves than marbles
+        this.history = new MoveHistory(score - 1);
     }
 
     /**
@@ -69,86 +141,307 @@ public abstract class AbstractSolitaireModel implements MarbleSolitaireModel {
     /**
      * Move implementation for rectangular grid-based solitaire games.
      * Handles orthogonal moves (up, down, left, right) with a jump of 2 spaces.
+     * Throws with the message getMoveMessage gives for the status reported by tryMove.
      */
     @Override
     public void move(int fromRow, int fromCol, int toRow, int toCol) {
-        // Validate move distance (must be 2 positions horizontally or vertically)
-        int rowDiff = Math.abs(toRow - fromRow);
-        int colDiff = Math.abs(toCol - fromCol);
-
-        if (!((rowDiff == 2 && colDiff == 0) || (rowDiff == 0 && colDiff == 2))) {
-            throw new IllegalArgumentException("Invalid move");
+        MoveStatus status = tryMove(fromRow, fromCol, toRow, toCol);
+        if (status != MoveStatus.OK) {
+            throw new IllegalArgumentException(getMoveMessage(status));
         }
+    }
 
-        int midRow = (fromRow + toRow) / 2;
-        int midCol = (fromCol + toCol) / 2;
+    /**
+     * Rectangular boards report every rejected move as "Invalid move"; tryMove still
+     * tells the reasons apart.
+     */
+    @Override
+    public String getMoveMessage(MoveStatus status) {
+        return status == MoveStatus.OK ? status.getMessage() : MoveStatus.REJECTED.getMessage();
+    }
 
-        // Validate all positions and states
-        if (!isValidPosition(fromRow, fromCol) || !isValidPosition(toRow, toCol) ||
-                board[fromRow][fromCol] != SlotState.Marble ||
-                board[toRow][toCol] != SlotState.Empty ||
-                board[midRow][midCol] != SlotState.Marble) {
-            throw new IllegalArgumentException("Invalid move");
+    @Override
+    public MoveStatus tryMove(int fromRow, int fromCol, int toRow, int toCol) {
+        // Validate positions, then look the jump up in the shared jump table
+        int from = geometry.cellIndex(fromRow, fromCol);
+        int to = geometry.cellIndex(toRow, toCol);
+        if (from < 0 || to < 0) {
+            return MoveStatus.INVALID_POSITION;
+        }
+        if (!hasMarble(from)) {
+            return MoveStatus.NO_MARBLE_AT_SOURCE;
+        }
+        if (hasMarble(to)) {
+            return MoveStatus.DESTINATION_NOT_EMPTY;
+        }
+        int jump = geometry.findJump(from, to);
+        if (jump < 0) {
+            return MoveStatus.NOT_A_JUMP;
+        }
+        if (!hasMarble(geometry.jumpOver(jump))) {
+            return MoveStatus.NO_MARBLE_TO_JUMP_OVER;
         }
 
-        // Execute move
-        board[fromRow][fromCol] = SlotState.Empty;
-        board[midRow][midCol] = SlotState.Empty;
-        board[toRow][toCol] = SlotState.Marble;
+        toggle(jump, -1);
+        history.record(jump);
+        return MoveStatus.OK;
+    }
+
+    /**
+     * Takes a snapshot that restores into a model of the calling subclass.
+     *
+     * @param restorer the snapshot constructor of the subclass
+     * @return the snapshot
+     */
+    protected BoardSnapshot snapshot(Function<BoardSnapshot, MarbleSolitaireModel> restorer) {
+        return new BoardSnapshot(geometry, marbles, restorer);
+    }
+
+    @Override
+    public void undo() {
+        toggle(history.undo(), 1);
+    }
+
+    @Override
+    public void redo() {
+        toggle(history.redo(), -1);
+    }
+
+    @Override
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    @Override
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    /**
+     * Makes or unmakes a jump by flipping its three slots, re-counting only the jumps
+     * that touch the changed slots.
+     *
+     * @param jump    the jump number in the board geometry
+     * @param marbles the change in the marble count, -1 to make and 1 to unmake
+     */
+    private void toggle(int jump, int marbles) {
+        int before = legalJumpsAround(jump);
+        flip(geometry.jumpFrom(jump));
+        flip(geometry.jumpOver(jump));
+        flip(geometry.jumpTo(jump));
+        legalMoves += legalJumpsAround(jump) - before;
+        score += marbles;
     }
 
     /**
      * Game over check for rectangular grid-based games.
-     * Checks all four orthogonal directions for possible moves.
+     * The game is over once the running count of legal jumps reaches zero.
      */
     @Override
     public boolean isGameOver() {
-        // Directions: up, right, down, left
-        int[] rowOffsets = {-2, 0, 2, 0};
-        int[] colOffsets = {0, 2, 0, -2};
-
-        for (int r = 0; r < getBoardSize(); r++) {
-            for (int c = 0; c < getBoardSize(); c++) {
-                if (board[r][c] == SlotState.Marble) {
-                    // Check all 4 directions
-                    for (int i = 0; i < 4; i++) {
-                        int newR = r + rowOffsets[i];
-                        int newC = c + colOffsets[i];
-                        int midR = r + rowOffsets[i] / 2;
-                        int midC = c + colOffsets[i] / 2;
-
-                        if (isValidPosition(newR, newC) &&
-                                board[newR][newC] == SlotState.Empty &&
-                                board[midR][midC] == SlotState.Marble) {
-                            return false;
-                        }
+        return legalMoves == 0;
+    }
+
+    @Override
+    public int getLegalMoves(int[] moves) {
+        return enumerateLegalMoves(moves, null);
+    }
+
+    @Override
+    public void forEachLegalMove(IntConsumer action) {
+        enumerateLegalMoves(null, action);
+    }
+
+    /**
+     * Lists the legal jumps in increasing order, writing them to the buffer while it
+     * has room or passing them to the action. Single-word boards only visit the
+     * marbles that have a jump in some direction; larger boards walk the marbles a
+     * word at a time and stop once the running count of legal jumps has been found.
+     *
+     * @return the number of legal jumps
+     */
+    private int enumerateLegalMoves(int[] moves, IntConsumer action) {
+        int count = 0;
+        if (marbles.length == 1) {
+            long movable = 0;
+            for (int d = 0; d < 4; d++) {
+                movable |= movable(d);
+            }
+            for (; movable != 0; movable &= movable - 1) {
+                int from = Long.numberOfTrailingZeros(movable);
+                for (int i = 0, n = geometry.fromCount(from); i < n; i++) {
+                    int j = geometry.fromJump(from, i);
+                    if (isLegal(j)) {
+                        count = emit(j, count, moves, action);
                     }
                 }
             }
+            return count;
         }
-        return true;
+
+        for (int w = 0; w < marbles.length && count < legalMoves; w++) {
+            for (long word = marbles[w]; word != 0 && count < legalMoves; word &= word - 1) {
+                int from = 64 * w + Long.numberOfTrailingZeros(word);
+                for (int i = 0, n = geometry.fromCount(from); i < n; i++) {
+                    int j = geometry.fromJump(from, i);
+                    if (isLegal(j)) {
+                        count = emit(j, count, moves, action);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int emit(int jump, int count, int[] moves, IntConsumer action) {
+        if (action != null) {
+            action.accept(jump);
+        } else if (count < moves.length) {
+            moves[count] = jump;
+        }
+        return count + 1;
+    }
+
+    /**
+     * Returns, on single-word boards, the marbles that can jump in direction d,
+     * found for the whole board at once by shifting the bitboards.
+     */
+    private long movable(int d) {
+        long m = marbles[0];
+        long e = valid[0] & ~m;
+        int k = geometry.directionOffset(d);
+        long movable = k > 0
+                ? m & (m >>> k) & (e >>> (2 * k))
+                : m & (m << -k) & (e << (-2 * k));
+        return movable & geometry.directionMask(d);
+    }
+
+    /**
+     * Counts every legal jump on the board. Single-word boards test every marble
+     * in one direction at once by shifting the bitboards; larger boards only test
+     * the jumps from marbles.
+     *
+     * @return the number of legal jumps
+     */
+    private int countLegalMoves() {
+        int count = 0;
+        if (marbles.length == 1) {
+            for (int d = 0; d < 4; d++) {
+                count += Long.bitCount(movable(d));
+            }
+            return count;
+        }
+
+        for (int w = 0; w < marbles.length; w++) {
+            for (long word = marbles[w]; word != 0; word &= word - 1) {
+                int from = 64 * w + Long.numberOfTrailingZeros(word);
+                for (int i = 0, n = geometry.fromCount(from); i < n; i++) {
+                    if (isLegal(geometry.fromJump(from, i))) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the legal jumps that touch any of the three slots of the given jump.
+     * These are the only jumps that making the given jump can create or destroy.
+     *
+     * @param jump the jump number in the board geometry
+     * @return the number of legal jumps in its neighbourhood
+     */
+    private int legalJumpsAround(int jump) {
+        int from = geometry.jumpFrom(jump);
+        int over = geometry.jumpOver(jump);
+        return legalJumpsTouching(from, -1, -1)
+                + legalJumpsTouching(over, from, -1)
+                + legalJumpsTouching(geometry.jumpTo(jump), from, over);
+    }
+
+    /**
+     * Counts the legal jumps touching a cell, skipping those that also touch either
+     * of two cells which have already been counted.
+     */
+    private int legalJumpsTouching(int cell, int skip1, int skip2) {
+        int count = 0;
+        for (int i = 0, n = geometry.touchingCount(cell); i < n; i++) {
+            int j = geometry.touchingJump(cell, i);
+            if (!touches(j, skip1) && !touches(j, skip2) && isLegal(j)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean touches(int jump, int cell) {
+        return geometry.jumpFrom(jump) == cell || geometry.jumpOver(jump) == cell
+                || geometry.jumpTo(jump) == cell;
+    }
+
+    /**
+     * Checks whether a jump from the geometry's table can be made right now. The
+     * table only lists jumps between valid holes.
+     */
+    private boolean isLegal(int jump) {
+        return hasMarble(geometry.jumpFrom(jump)) && hasMarble(geometry.jumpOver(jump))
+                && !hasMarble(geometry.jumpTo(jump));
+    }
+
+    private void flip(int bit) {
+        marbles[bit >>> 6] ^= 1L << bit;
+        zobristHash ^= geometry.zobristKey(bit);
+    }
+
+    private boolean inBounds(int row, int col) {
+        return row >= 0 && row < boardSize && col >= 0 && col < boardSize;
+    }
+
+    private boolean hasMarble(int bit) {
+        return (marbles[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private boolean isEmptyHole(int bit) {
+        return ((valid[bit >>> 6] & ~marbles[bit >>> 6]) & (1L << bit)) != 0;
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
     }
 
     @Override
     public int getBoardSize() {
-        return armThickness * 3 - 2;
+        return boardSize;
     }
 
     @Override
     public SlotState getSlotAt(int row, int col) {
-        if (row < 0 || row >= getBoardSize() || col < 0 || col >= getBoardSize()) {
+        if (!inBounds(row, col)) {
             throw new IllegalArgumentException("Position out of bounds");
         }
-        return board[row][col];
+        int bit = row * boardSize + col;
+        if (hasMarble(bit)) {
+            return SlotState.Marble;
+        }
+        return isEmptyHole(bit) ? SlotState.Empty : SlotState.Invalid;
     }
 
     @Override
     public int getScore() {
+        return score;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    private int countMarbles() {
         int count = 0;
-        for (SlotState[] row : board) {
-            for (SlotState slot : row) {
-                if (slot == SlotState.Marble) count++;
-            }
+        for (long word : marbles) {
+            count += Long.bitCount(word);
         }
         return count;
     }
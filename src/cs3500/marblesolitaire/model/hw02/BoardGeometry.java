@@ -0,0 +1,401 @@
+package cs3500.marblesolitaire.model.hw02;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable description of the shape of a solitaire board: which slots are holes and
+ * every jump that can ever be made between them.
+ * <p>
+ * Holes are numbered by a cell index. Rectangular boards use row * boardSize + col,
+ * so that jumps along a row or a column are fixed bit offsets in a bitboard.
+ * Triangular boards only number the real holes, row by row, so cell (row, col) is
+ * row * (row + 1) / 2 + col.
+ * <p>
+ * Each jump is a (from, over, to) triple of cell indexes, listed once per direction.
+ * Jumps are numbered, so a move can be named by a single int. For every cell the
+ * geometry also lists the jumps that start there and the jumps that touch it in any
+ * role, which is what a model needs to validate a move or re-count its mobility
+ * without recomputing the board shape.
+ * <p>
+ * Each cell also has a random 64-bit Zobrist key. The XOR of the keys of the cells
+ * holding a marble identifies a position, and a jump changes it by exactly the keys
+ * of its three cells. Keys come from a fixed seed, so a position has the same hash
+ * in every run.
+ * <p>
+ * Building a geometry walks the whole board, so instances are cached by variant and
+ * size and shared by every model of that shape.
+ */
+public final class BoardGeometry {
+    // Unit steps of the jumps on rectangular boards: right, left, down, up
+    private static final int[][] RECTANGULAR_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    // Unit steps of the jumps on triangular boards: left, right, up-left, up-right,
+    // down-left, down-right
+    private static final int[][] TRIANGULAR_DIRECTIONS =
+            {{0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {1, 0}, {1, 1}};
+
+    private static final ConcurrentMap<String, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+    private static final long ZOBRIST_SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Decides whether a slot of the board grid is a hole.
+     */
+    public interface Shape {
+        /**
+         * Checks whether (row, col) is a hole of this shape.
+         *
+         * @param row the row to check
+         * @param col the column to check
+         * @return true if the slot is a hole
+         */
+        boolean contains(int row, int col);
+    }
+
+    private final String name;
+    private final int boardSize;
+    private final boolean triangular;
+    private final int cellCount;
+    private final long[] validMask;
+    private final int[] rows;
+    private final int[] cols;
+    private final long[] zobristKeys;
+    // from, over and to cell of each jump, three ints per jump
+    private final int[] jumps;
+    // jumps numbered fromStart[cell] .. fromStart[cell + 1] - 1 start at each cell
+    private final int[] fromStart;
+    // jumps touching each cell: touching[touchStart[cell] .. touchStart[cell + 1])
+    private final int[] touchStart;
+    private final int[] touching;
+    // Single-word rectangular boards only: cells whose jump in each direction stays
+    // on the board, and the cell offset of the over slot in that direction
+    private final long[] directionMasks;
+    private final int[] directionOffsets;
+
+    private BoardGeometry(String name, int boardSize, boolean triangular, Shape shape) {
+        this.name = name;
+        this.boardSize = boardSize;
+        this.triangular = triangular;
+        this.cellCount = triangular ? boardSize * (boardSize + 1) / 2 : boardSize * boardSize;
+        this.validMask = new long[(cellCount + 63) >>> 6];
+        this.rows = new int[cellCount];
+        this.cols = new int[cellCount];
+        this.zobristKeys = new long[cellCount];
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        for (int cell = 0; cell < cellCount; cell++) {
+            zobristKeys[cell] = random.nextLong();
+        }
+
+        for (int r = 0; r < boardSize; r++) {
+            for (int c = 0; c < boardSize; c++) {
+                int cell = gridIndex(r, c);
+                if (cell >= 0) {
+                    rows[cell] = r;
+                    cols[cell] = c;
+                    if (shape.contains(r, c)) {
+                        validMask[cell >>> 6] |= 1L << cell;
+                    }
+                }
+            }
+        }
+
+        // Jumps, grouped by the cell they start from
+        int[][] directions = triangular ? TRIANGULAR_DIRECTIONS : RECTANGULAR_DIRECTIONS;
+        int[] found = new int[cellCount * directions.length * 3];
+        int jumpCount = 0;
+        this.fromStart = new int[cellCount + 1];
+        for (int cell = 0; cell < cellCount; cell++) {
+            fromStart[cell] = jumpCount;
+            if (!isValid(cell)) {
+                continue;
+            }
+            for (int[] d : directions) {
+                int over = cellIndex(rows[cell] + d[0], cols[cell] + d[1]);
+                int to = cellIndex(rows[cell] + 2 * d[0], cols[cell] + 2 * d[1]);
+                if (over >= 0 && to >= 0) {
+                    found[3 * jumpCount] = cell;
+                    found[3 * jumpCount + 1] = over;
+                    found[3 * jumpCount + 2] = to;
+                    jumpCount++;
+                }
+            }
+        }
+        fromStart[cellCount] = jumpCount;
+        this.jumps = Arrays.copyOf(found, 3 * jumpCount);
+
+        // Jumps touching each cell, in any of the three roles
+        this.touchStart = new int[cellCount + 1];
+        for (int slot : jumps) {
+            touchStart[slot + 1]++;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            touchStart[cell + 1] += touchStart[cell];
+        }
+        this.touching = new int[jumps.length];
+        int[] next = Arrays.copyOf(touchStart, cellCount);
+        for (int i = 0; i < jumps.length; i++) {
+            touching[next[jumps[i]]++] = i / 3;
+        }
+
+        this.directionMasks = new long[4];
+        this.directionOffsets = new int[]{1, -1, boardSize, -boardSize};
+        if (!triangular && validMask.length == 1) {
+            for (int j = 0; j < jumpCount; j++) {
+                int from = jumps[3 * j];
+                int d = directionOf(jumps[3 * j + 1] - from);
+                directionMasks[d] |= 1L << from;
+            }
+        }
+    }
+
+    /**
+     * Returns the shared geometry of a rectangular board, building it on first use.
+     *
+     * @param variant   the name of the board variant, which together with the size
+     *                  identifies the shape
+     * @param boardSize the number of rows and columns of the board
+     * @param shape     the holes of the board
+     * @return the geometry of the board
+     */
+    public static BoardGeometry rectangular(String variant, int boardSize, Shape shape) {
+        return CACHE.computeIfAbsent(variant + "/" + boardSize,
+                key -> new BoardGeometry(key, boardSize, false, shape));
+    }
+
+    /**
+     * Returns the shared geometry of a triangular board, building it on first use.
+     *
+     * @param dimensions the number of rows of the triangle
+     * @return the geometry of the board
+     */
+    public static BoardGeometry triangular(int dimensions) {
+        return CACHE.computeIfAbsent("triangle/" + dimensions,
+                key -> new BoardGeometry(key, dimensions, true, (r, c) -> true));
+    }
+
+    /**
+     * Returns the shared rectangular geometry of the holes of any model state,
+     * building it on first use. Only the holes are read on later calls, so states of
+     * one shape share a geometry without rebuilding its jump tables.
+     *
+     * @param state the state whose holes define the shape
+     * @return the geometry of the board
+     */
+    public static BoardGeometry fromState(MarbleSolitaireModelState state) {
+        int boardSize = state.getBoardSize();
+        long[] holes = new long[(boardSize * boardSize + 63) >>> 6];
+        for (int r = 0; r < boardSize; r++) {
+            for (int c = 0; c < boardSize; c++) {
+                if (state.getSlotAt(r, c) != MarbleSolitaireModelState.SlotState.Invalid) {
+                    int cell = r * boardSize + c;
+                    holes[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+        StringBuilder key = new StringBuilder("custom/").append(boardSize);
+        for (long word : holes) {
+            key.append('/').append(Long.toHexString(word));
+        }
+        return CACHE.computeIfAbsent(key.toString(),
+                k -> new BoardGeometry("custom/" + boardSize, boardSize, false, (r, c) -> {
+                    int cell = r * boardSize + c;
+                    return (holes[cell >>> 6] & (1L << cell)) != 0;
+                }));
+    }
+
+    private int directionOf(int offset) {
+        for (int d = 0; d < directionOffsets.length; d++) {
+            if (directionOffsets[d] == offset) {
+                return d;
+            }
+        }
+        throw new IllegalStateException("Not a rectangular jump offset: " + offset);
+    }
+
+    /**
+     * Returns the cell index of a slot of the grid, whether or not it is a hole.
+     *
+     * @return the cell index, or -1 if the slot is outside the grid
+     */
+    private int gridIndex(int row, int col) {
+        if (row < 0 || row >= boardSize || col < 0 || col >= boardSize) {
+            return -1;
+        }
+        if (triangular) {
+            return col <= row ? row * (row + 1) / 2 + col : -1;
+        }
+        return row * boardSize + col;
+    }
+
+    /**
+     * Returns the cell index of a hole.
+     *
+     * @param row the row of the slot
+     * @param col the column of the slot
+     * @return the cell index, or -1 if the slot is not a hole of this board
+     */
+    public int cellIndex(int row, int col) {
+        int cell = gridIndex(row, col);
+        return cell >= 0 && isValid(cell) ? cell : -1;
+    }
+
+    /**
+     * Checks whether a cell index names a hole.
+     *
+     * @param cell the cell index, between 0 and getCellCount() - 1
+     * @return true if the cell is a hole
+     */
+    public boolean isValid(int cell) {
+        return (validMask[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Returns the validity mask, one bit per cell index. The array is shared and must
+     * not be modified.
+     */
+    long[] validMask() {
+        return validMask;
+    }
+
+    /**
+     * Returns, for single-word rectangular boards, the cells whose jump in direction
+     * d (right, left, down, up) stays on the board. It is 0 on every other board.
+     *
+     * @param d the direction, between 0 and 3
+     * @return one bit per cell index of the cells that can jump in direction d
+     */
+    public long directionMask(int d) {
+        return directionMasks[d];
+    }
+
+    /**
+     * Returns the cell offset of the over slot of a rectangular jump in direction d;
+     * the landing slot is twice as far.
+     *
+     * @param d the direction, between 0 and 3
+     * @return the offset: 1, -1, getBoardSize() or -getBoardSize()
+     */
+    public int directionOffset(int d) {
+        return directionOffsets[d];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public boolean isTriangular() {
+        return triangular;
+    }
+
+    /**
+     * Returns the size of the cell index space. Not every index is a hole on
+     * rectangular boards.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int row(int cell) {
+        return rows[cell];
+    }
+
+    public int col(int cell) {
+        return cols[cell];
+    }
+
+    /**
+     * Returns the Zobrist key of a cell, which is XORed into the hash of a position
+     * whenever the cell holds a marble.
+     */
+    public long zobristKey(int cell) {
+        return zobristKeys[cell];
+    }
+
+    /**
+     * Computes the Zobrist hash of a bitboard with one bit per cell index, as the
+     * models keep it.
+     *
+     * @param marbles the marble bits
+     * @return the XOR of the keys of the cells holding a marble
+     */
+    public long zobristHash(long[] marbles) {
+        long hash = 0;
+        for (int w = 0; w < marbles.length; w++) {
+            for (long word = marbles[w]; word != 0; word &= word - 1) {
+                hash ^= zobristKeys[64 * w + Long.numberOfTrailingZeros(word)];
+            }
+        }
+        return hash;
+    }
+
+    public int getJumpCount() {
+        return jumps.length / 3;
+    }
+
+    public int jumpFrom(int jump) {
+        return jumps[3 * jump];
+    }
+
+    public int jumpOver(int jump) {
+        return jumps[3 * jump + 1];
+    }
+
+    public int jumpTo(int jump) {
+        return jumps[3 * jump + 2];
+    }
+
+    /**
+     * Looks up the jump between two holes.
+     *
+     * @param from the cell the jump starts from
+     * @param to   the cell the jump lands on
+     * @return the jump number, or -1 if no jump connects the two cells
+     */
+    public int findJump(int from, int to) {
+        for (int j = fromStart[from]; j < fromStart[from + 1]; j++) {
+            if (jumps[3 * j + 2] == to) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of jumps that start at the given cell.
+     */
+    public int fromCount(int cell) {
+        return fromStart[cell + 1] - fromStart[cell];
+    }
+
+    /**
+     * Returns the i-th jump that starts at the given cell. Jumps are numbered by the
+     * cell they start from, so jumps from lower cells always have lower numbers.
+     */
+    public int fromJump(int cell, int i) {
+        return fromStart[cell] + i;
+    }
+
+    /**
+     * Returns the number of jumps that use the given cell as from, over or to slot.
+     */
+    public int touchingCount(int cell) {
+        return touchStart[cell + 1] - touchStart[cell];
+    }
+
+    /**
+     * Returns the i-th jump that uses the given cell as from, over or to slot.
+     */
+    public int touchingJump(int cell, int i) {
+        return touching[touchStart[cell] + i];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,205 @@
+package cs3500.marblesolitaire.model.hw02;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Immutable copy of the marbles of a board at one moment of a game.
+ * <p>
+ * A snapshot holds the shared BoardGeometry of the board and one marble bit per
+ * cell index, the same layout the models keep their own boards in, so taking one is
+ * a single array copy of a few words. The live game can go on being played while the
+ * snapshot is searched, shown to spectators or saved.
+ * <p>
+ * Two snapshots are equal when they have the same geometry and the same marbles,
+ * whatever moves led to them, so snapshots can key hash maps and sorted maps
+ * directly. toModel turns a snapshot back into a new live model of the variant it
+ * was taken from, starting with an empty move history.
+ */
+public final class BoardSnapshot implements MarbleSolitaireModelState, Comparable<BoardSnapshot> {
+    private final BoardGeometry geometry;
+    private final long[] marbles;
+    private final int score;
+    private final Function<BoardSnapshot, MarbleSolitaireModel> restorer;
+    private int hash;
+
+    /**
+     * Creates a snapshot of a board.
+     *
+     * @param geometry the geometry of the board
+     * @param marbles  one bit per cell index of the geometry, set where a marble is;
+     *                 the array is copied
+     * @param restorer creates a live model from the snapshot, or null if the board
+     *                 has no model to go back to
+     * @throws IllegalArgumentException if the marbles do not fit the geometry
+     */
+    public BoardSnapshot(BoardGeometry geometry, long[] marbles,
+                         Function<BoardSnapshot, MarbleSolitaireModel> restorer) {
+        long[] valid = geometry.validMask();
+        if (marbles.length != valid.length) {
+            throw new IllegalArgumentException("Expected " + valid.length + " words for " + geometry);
+        }
+        int count = 0;
+        for (int w = 0; w < valid.length; w++) {
+            if ((marbles[w] & ~valid[w]) != 0) {
+                throw new IllegalArgumentException("Marble outside the holes of " + geometry);
+            }
+            count += Long.bitCount(marbles[w]);
+        }
+        this.geometry = geometry;
+        this.marbles = marbles.clone();
+        this.score = count;
+        this.restorer = restorer;
+    }
+
+    /**
+     * Takes a snapshot of any state by reading every hole of its geometry. Models
+     * take their own snapshots faster with snapshot().
+     *
+     * @param state the state to copy
+     * @return the snapshot, which cannot be turned back into a model
+     */
+    static BoardSnapshot of(MarbleSolitaireModelState state) {
+        BoardGeometry geometry = state.getGeometry();
+        long[] marbles = new long[geometry.validMask().length];
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell)
+                    && state.getSlotAt(geometry.row(cell), geometry.col(cell)) == SlotState.Marble) {
+                marbles[cell >>> 6] |= 1L << cell;
+            }
+        }
+        return new BoardSnapshot(geometry, marbles, null);
+    }
+
+    /**
+     * Creates a new live model holding the marbles of this snapshot.
+     *
+     * @return the model, with no moves to undo
+     * @throws UnsupportedOperationException if the snapshot was not taken from a model
+     */
+    public MarbleSolitaireModel toModel() {
+        if (restorer == null) {
+            throw new UnsupportedOperationException("No model to restore " + geometry + " into");
+        }
+        return restorer.apply(this);
+    }
+
+    /**
+     * Creates a snapshot of another position of the same board, which restores into
+     * the same variant of model as this one.
+     *
+     * @param marbles one bit per cell index of the geometry; the array is copied
+     * @return the snapshot
+     * @throws IllegalArgumentException if the marbles do not fit the geometry
+     */
+    public BoardSnapshot withMarbles(long[] marbles) {
+        return new BoardSnapshot(geometry, marbles, restorer);
+    }
+
+    /**
+     * Returns a copy of the marble bits, one per cell index of the geometry.
+     */
+    public long[] getMarbles() {
+        return marbles.clone();
+    }
+
+    /**
+     * Checks whether the hole with the given cell index holds a marble.
+     *
+     * @param cell the cell index
+     * @return true if the cell holds a marble
+     */
+    public boolean hasMarble(int cell) {
+        return (marbles[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return this;
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return geometry.getBoardSize();
+    }
+
+    @Override
+    public SlotState getSlotAt(int row, int col) {
+        int size = geometry.getBoardSize();
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new IllegalArgumentException("Position out of bounds");
+        }
+        int cell = geometry.cellIndex(row, col);
+        if (cell < 0) {
+            return SlotState.Invalid;
+        }
+        return hasMarble(cell) ? SlotState.Marble : SlotState.Empty;
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return geometry.zobristHash(marbles);
+    }
+
+    /**
+     * Orders snapshots by board, then by their marble words compared as unsigned
+     * numbers. The order is consistent with equals.
+     */
+    @Override
+    public int compareTo(BoardSnapshot other) {
+        int order = geometry.getName().compareTo(other.geometry.getName());
+        if (order == 0 && geometry != other.geometry) {
+            order = compareWords(geometry.validMask(), other.geometry.validMask());
+        }
+        return order != 0 ? order : compareWords(marbles, other.marbles);
+    }
+
+    private static int compareWords(long[] a, long[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int w = 0; w < n; w++) {
+            if (a[w] != b[w]) {
+                return Long.compareUnsigned(a[w], b[w]);
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardSnapshot)) {
+            return false;
+        }
+        BoardSnapshot other = (BoardSnapshot) o;
+        return Arrays.equals(marbles, other.marbles)
+                && (geometry == other.geometry || (geometry.getName().equals(other.geometry.getName())
+                && Arrays.equals(geometry.validMask(), other.geometry.validMask())));
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * geometry.getName().hashCode() + Arrays.hashCode(marbles);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return geometry + " with " + score + " marbles";
+    }
+}
@@ -47,6 +47,20 @@ public class EnglishSolitaireModel extends AbstractSolitaireModel {
         super(armThickness, sRow, sCol);
     }
 
+    /**
+     * Fifth constructor: the board of a snapshot taken from an English model
+     *
+     * @throws IllegalArgumentException if the snapshot is of another board
+     */
+    public EnglishSolitaireModel(BoardSnapshot snapshot) {
+        super(snapshot);
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return snapshot(EnglishSolitaireModel::new);
+    }
+
     /**
      * Check if a position is valid on the plus-shaped board.
      * The plus shape consists of a vertical and horizontal bar of width armThickness.
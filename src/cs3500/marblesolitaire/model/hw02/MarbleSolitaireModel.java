@@ -20,6 +20,76 @@ public interface MarbleSolitaireModel extends MarbleSolitaireModelState {
     void move(int fromRow, int fromCol, int toRow, int toCol) throws
             IllegalArgumentException;
 
+    /**
+     * Try to move a single marble from a given position to another given position, reporting
+     * why the move is not possible instead of throwing. An illegal move leaves the game
+     * unchanged, and no objects are allocated either way, so callers that probe many moves
+     * pay no exception cost. The default makes the move through move, so a model that does
+     * not override it still reports an illegal move by throwing, with its own message.
+     *
+     * @param fromRow the row number of the position to be moved from (starts at 0)
+     * @param fromCol the column number of the position to be moved from (starts at 0)
+     * @param toRow   the row number of the position to be moved to (starts at 0)
+     * @param toCol   the column number of the position to be moved to (starts at 0)
+     * @return MoveStatus.OK if the move was made, otherwise the reason it was not
+     * @throws IllegalArgumentException if this default is not overridden and move rejects
+     *                                  the move
+     */
+    default MoveStatus tryMove(int fromRow, int fromCol, int toRow, int toCol) {
+        move(fromRow, fromCol, toRow, toCol);
+        return MoveStatus.OK;
+    }
+
+    /**
+     * Return the message move reports for a move with the given outcome, which the
+     * controller also shows when it rejects a move. The default is the message of the
+     * status itself.
+     *
+     * @param status the outcome of a move
+     * @return the message describing it
+     */
+    default String getMoveMessage(MoveStatus status) {
+        return status.getMessage();
+    }
+
+    /**
+     * Take back the last move made, restoring the board exactly as it was before it. The
+     * move can then be made again with redo, until a different move is made.
+     *
+     * @throws IllegalStateException if no move has been made, or the model keeps no
+     *                               history
+     */
+    default void undo() throws IllegalStateException {
+        throw new IllegalStateException("Undo is not supported");
+    }
+
+    /**
+     * Make again the last move taken back by undo.
+     *
+     * @throws IllegalStateException if there is no move to redo
+     */
+    default void redo() throws IllegalStateException {
+        throw new IllegalStateException("Redo is not supported");
+    }
+
+    /**
+     * Determine whether there is a move that undo can take back.
+     *
+     * @return true if undo is possible
+     */
+    default boolean canUndo() {
+        return false;
+    }
+
+    /**
+     * Determine whether there is a move that redo can make again.
+     *
+     * @return true if redo is possible
+     */
+    default boolean canRedo() {
+        return false;
+    }
+
     /**
      * Determine and return if the game is over or not. A game is over if no more moves can be made.
      *
@@ -27,5 +97,32 @@ public interface MarbleSolitaireModel extends MarbleSolitaireModelState {
      */
     boolean isGameOver();
 
+    /**
+     * This enum represents the outcome of an attempted move: either the move was made, or
+     * the first rule it breaks. Each failure has the message that move reports for it.
+     */
+    enum MoveStatus {
+        OK("Move made"),
+        INVALID_POSITION("Invalid position"),
+        NO_MARBLE_AT_SOURCE("No marble at source position"),
+        DESTINATION_NOT_EMPTY("Destination is not empty"),
+        NOT_A_JUMP("Invalid move: not a valid jump"),
+        NO_MARBLE_TO_JUMP_OVER("No marble to jump over"),
+        REJECTED("Invalid move");
+
+        private final String message;
+
+        MoveStatus(String message) {
+            this.message = message;
+        }
 
+        /**
+         * Return the message describing this outcome.
+         *
+         * @return the message
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
 }
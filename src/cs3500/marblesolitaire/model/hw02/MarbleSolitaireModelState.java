@@ -1,5 +1,7 @@
 package cs3500.marblesolitaire.model.hw02;
 
+import java.util.function.IntConsumer;
+
 /**
  * This interface represents operations that can be used to monitor the state of a marble solitaire
  * model, without changing it.
@@ -30,6 +32,101 @@ public interface MarbleSolitaireModelState {
      */
     int getScore();
 
+    /**
+     * Return the geometry of this board: its holes and every jump between them.
+     * Models with a known shape share one geometry per variant and size; the default
+     * reads the holes reported by getSlotAt and returns the geometry shared by every
+     * state with those holes, so it only costs one pass over the board.
+     *
+     * @return the geometry of this board
+     */
+    default BoardGeometry getGeometry() {
+        return BoardGeometry.fromState(this);
+    }
+
+    /**
+     * Return the 64-bit Zobrist hash of the current position: the XOR of the
+     * getGeometry().zobristKey of every hole holding a marble. Equal positions on the
+     * same board always have equal hashes, so the hash can key transposition tables
+     * and caches. Models keep it up to date as moves are made, so it costs nothing to
+     * read; the default recomputes it from getSlotAt.
+     *
+     * @return the hash of the position
+     */
+    default long getZobristHash() {
+        BoardGeometry geometry = getGeometry();
+        long hash = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell) && slot(this, geometry, cell) == SlotState.Marble) {
+                hash ^= geometry.zobristKey(cell);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Write the legal moves of the current position into a buffer, without allocating.
+     * Each move is packed into an int as its jump number in getGeometry(), whose
+     * jumpFrom, jumpOver and jumpTo give its slots, and moves are written in
+     * increasing jump order. If the buffer is too short only the moves that fit are
+     * written, but all are counted; a buffer of getGeometry().getJumpCount() ints is
+     * always long enough.
+     *
+     * @param moves the buffer to fill
+     * @return the number of legal moves
+     */
+    default int getLegalMoves(int[] moves) {
+        BoardGeometry geometry = getGeometry();
+        int count = 0;
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            if (isLegalJump(this, geometry, j)) {
+                if (count < moves.length) {
+                    moves[count] = j;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Pass every legal move of the current position to an action, packed and ordered
+     * as by getLegalMoves, without allocating.
+     *
+     * @param action the action to run on each move
+     */
+    default void forEachLegalMove(IntConsumer action) {
+        BoardGeometry geometry = getGeometry();
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            if (isLegalJump(this, geometry, j)) {
+                action.accept(j);
+            }
+        }
+    }
+
+    /**
+     * Take an immutable snapshot of the marbles on the board. The default reads every
+     * hole through getSlotAt and gives a snapshot that cannot be turned back into a
+     * model; models override it with a copy of their own board that can.
+     *
+     * @return the snapshot
+     */
+    default BoardSnapshot snapshot() {
+        return BoardSnapshot.of(this);
+    }
+
+    private static boolean isLegalJump(MarbleSolitaireModelState state, BoardGeometry geometry,
+                                       int jump) {
+        return slot(state, geometry, geometry.jumpFrom(jump)) == SlotState.Marble
+                && slot(state, geometry, geometry.jumpOver(jump)) == SlotState.Marble
+                && slot(state, geometry, geometry.jumpTo(jump)) == SlotState.Empty;
+    }
+
+    private static SlotState slot(MarbleSolitaireModelState state, BoardGeometry geometry,
+                                  int cell) {
+        return state.getSlotAt(geometry.row(cell), geometry.col(cell));
+    }
+
     /**
      * This enum represents the state of a single slot on the board. Every slot
      * can either be empty, have a marble, or be an invalid position
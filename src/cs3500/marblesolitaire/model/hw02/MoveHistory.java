@@ -0,0 +1,93 @@
+package cs3500.marblesolitaire.model.hw02;
+
+import java.util.Arrays;
+
+/**
+ * The moves made in a game, kept for undo and redo as one int per move: the jump
+ * number of the move in the board geometry.
+ * <p>
+ * Moves that have been undone stay in the array after the current position until a
+ * new move replaces them, so redo just steps forward again. Every game removes a
+ * marble per move, so sizing the array for one move fewer than the starting marbles
+ * means it never has to grow, and recording, undoing and redoing never allocate.
+ */
+public final class MoveHistory {
+    private int[] moves;
+    // Moves made up to the current position
+    private int size;
+    // Moves that can be replayed, counted from the start; size <= end
+    private int end;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity the number of moves to make room for
+     */
+    public MoveHistory(int capacity) {
+        this.moves = new int[Math.max(0, capacity)];
+    }
+
+    /**
+     * Records a new move, which discards any moves that could have been redone.
+     *
+     * @param jump the jump number of the move
+     */
+    public void record(int jump) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(8, 2 * moves.length));
+        }
+        moves[size++] = jump;
+        end = size;
+    }
+
+    public boolean canUndo() {
+        return size > 0;
+    }
+
+    public boolean canRedo() {
+        return size < end;
+    }
+
+    /**
+     * Steps back one move.
+     *
+     * @return the jump number of the move to unmake
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public int undo() {
+        if (size == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        return moves[--size];
+    }
+
+    /**
+     * Steps forward one undone move.
+     *
+     * @return the jump number of the move to make again
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public int redo() {
+        if (size == end) {
+            throw new IllegalStateException("No move to redo");
+        }
+        return moves[size++];
+    }
+
+    /**
+     * Returns the number of moves made up to the current position.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the jump number of the i-th move made, counting from 0.
+     */
+    public int get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Move " + i + " of " + size);
+        }
+        return moves[i];
+    }
+}
@@ -1,6 +1,7 @@
 package cs3500.marblesolitaire.model.hw04;
 
 import cs3500.marblesolitaire.model.hw02.AbstractSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
 
 /**
  * Implementation of European Marble Solitaire with an octagonal board.
@@ -59,6 +60,21 @@ public class EuropeanSolitaireModel extends AbstractSolitaireModel {
         super(sideLength, sRow, sCol);
     }
 
+    /**
+     * Snapshot constructor: restores the board of a snapshot taken from a European model.
+     *
+     * @param snapshot the snapshot to restore
+     * @throws IllegalArgumentException if the snapshot is of another board
+     */
+    public EuropeanSolitaireModel(BoardSnapshot snapshot) {
+        super(snapshot);
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return snapshot(EuropeanSolitaireModel::new);
+    }
+
     /**
      * Check if a position is valid on the octagonal board.
      * The octagonal shape is created by cutting off the four corners of a square board.
@@ -164,4 +164,30 @@ public class EuropeanSolitaireModelTest {
     public void testGetSlotAtOutOfBoundsPositive() {
         model.getSlotAt(7, 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetLegalMoves() {
+        int[] moves = new int[model.getGeometry().getJumpCount()];
+        assertEquals(4, model.getLegalMoves(moves));
+        model.move(1, 3, 3, 3);
+        // (1,1) and (1,5) are holes on the European board, unlike the English one
+        assertEquals(5, model.getLegalMoves(moves));
+        for (int i = 0; i < 5; i++) {
+            int to = model.getGeometry().jumpTo(moves[i]);
+            assertEquals(SlotState.Empty,
+                    model.getSlotAt(model.getGeometry().row(to), model.getGeometry().col(to)));
+        }
+    }
+
+    @Test
+    public void testUndo() {
+        model.move(1, 3, 3, 3);
+        model.move(1, 1, 1, 3);
+        model.undo();
+        model.undo();
+        assertEquals(36, model.getScore());
+        assertEquals(SlotState.Empty, model.getSlotAt(3, 3));
+        assertEquals(SlotState.Marble, model.getSlotAt(1, 1));
+        assertEquals(4, model.getLegalMoves(new int[0]));
+    }
+}
@@ -1,14 +1,48 @@
 package cs3500.marblesolitaire.model.hw04;
 
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MoveHistory;
+
+import java.util.function.IntConsumer;
 
 /**
  * Implementation of Triangle Marble Solitaire with a triangular board.
  * The board has a triangular shape where row i has i+1 positions.
+ * <p>
+ * The model keeps a running marble count and a running count of legal jumps, so
+ * getScore and isGameOver answer in constant time. Each move only re-counts the
+ * jumps that touch the three slots it changes.
+ * <p>
+ * The six-direction jump geometry is looked up in a BoardGeometry shared by all
+ * triangles of the same dimensions instead of being re-derived on every move.
+ * <p>
+ * BOARD REPRESENTATION:
+ * Only the lower triangle (col <= row) holds real holes, so the board is not kept
+ * as a dimensions x dimensions grid. The n(n+1)/2 holes are numbered row by row,
+ * (row, col) being bit row * (row + 1) / 2 + col, and a bitboard of that many bits
+ * marks the holes holding a marble. Every hole is valid, so no validity bits are
+ * needed; getSlotAt reports the slots above the diagonal as Invalid from their
+ * coordinates alone. The jumps of the geometry use the same flat numbering, so
+ * moves and jump checks test bits directly.
+ * <p>
+ * Every move is recorded in a MoveHistory by its jump number, so undo restores the
+ * three slots of the jump and redo makes it again. The Zobrist hash of the position
+ * is updated with the geometry keys of those three slots, one XOR each.
+ * <p>
+ * A BoardSnapshot copies the marble bitboard, and the snapshot constructor rebuilds
+ * a model from one.
  */
 public class TriangleSolitaireModel implements MarbleSolitaireModel {
     private final int dimensions;
-    private final SlotState[][] board;
+    private final BoardGeometry geometry;
+    // One bit per hole, set when the hole holds a marble
+    private final long[] marbles;
+    private int score;
+    private int legalMoves;
+    private long zobristHash;
+    private final MoveHistory history;
 
     /**
      * Default constructor: creates a 5-row game with empty slot at (0,0).
@@ -43,20 +77,48 @@ public class TriangleSolitaireModel implements MarbleSolitaireModel {
         }
 
         this.dimensions = dimensions;
-        this.board = new SlotState[dimensions][dimensions];
-
-        // Initialize entire board
-        for (int r = 0; r < dimensions; r++) {
-            for (int c = 0; c < dimensions; c++) {
-                board[r][c] = isValidPosition(r, c) ? SlotState.Marble : SlotState.Invalid;
-            }
-        }
+        this.geometry = BoardGeometry.triangular(dimensions);
+        int holes = geometry.getCellCount();
 
         // Validate and set empty position
         if (!isValidPosition(sRow, sCol)) {
             throw new IllegalArgumentException("Invalid empty cell position (" + sRow + "," + sCol + ")");
         }
-        board[sRow][sCol] = SlotState.Empty;
+
+        // Fill every hole, then clear the empty one
+        this.marbles = new long[(holes + 63) >>> 6];
+        for (int w = 0; w < marbles.length; w++) {
+            int bits = Math.min(64, holes - 64 * w);
+            marbles[w] = bits == 64 ? -1L : (1L << bits) - 1;
+        }
+        setMarble(geometry.cellIndex(sRow, sCol), false);
+
+        this.score = countMarbles();
+        this.legalMoves = countLegalMoves();
+        this.zobristHash = geometry.zobristHash(marbles);
+        // Every move removes a marble, so a game has fewer moves than marbles
+        this.history = new MoveHistory(score - 1);
+    }
+
+    /**
+     * Snapshot constructor: restores the board of a snapshot taken from a triangle
+     * model, with no moves to undo.
+     *
+     * @throws IllegalArgumentException if the snapshot is not of a triangular board
+     */
+    public TriangleSolitaireModel(BoardSnapshot snapshot) {
+        this.dimensions = snapshot.getBoardSize();
+        this.geometry = BoardGeometry.triangular(dimensions);
+        if (snapshot.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Snapshot of " + snapshot.getGeometry()
+                    + " cannot be restored as " + geometry);
+        }
+        this.marbles = snapshot.getMarbles();
+
+        this.score = countMarbles();
+        this.legalMoves = countLegalMoves();
+        this.zobristHash = geometry.zobristHash(marbles);
+        this.history = new MoveHistory(score - 1);
     }
 
     /**
@@ -69,125 +131,205 @@ public class TriangleSolitaireModel implements MarbleSolitaireModel {
 
     @Override
     public void move(int fromRow, int fromCol, int toRow, int toCol) {
+        MoveStatus status = tryMove(fromRow, fromCol, toRow, toCol);
+        if (status != MoveStatus.OK) {
+            throw new IllegalArgumentException(status.getMessage());
+        }
+    }
+
+    @Override
+    public MoveStatus tryMove(int fromRow, int fromCol, int toRow, int toCol) {
         // Validate positions
         if (!isValidPosition(fromRow, fromCol) || !isValidPosition(toRow, toCol)) {
-            throw new IllegalArgumentException("Invalid position");
+            return MoveStatus.INVALID_POSITION;
         }
 
         // Check source has a marble and destination is empty
-        if (board[fromRow][fromCol] != SlotState.Marble) {
-            throw new IllegalArgumentException("No marble at source position");
+        int from = geometry.cellIndex(fromRow, fromCol);
+        int to = geometry.cellIndex(toRow, toCol);
+        if (!hasMarble(from)) {
+            return MoveStatus.NO_MARBLE_AT_SOURCE;
         }
-        if (board[toRow][toCol] != SlotState.Empty) {
-            throw new IllegalArgumentException("Destination is not empty");
+        if (hasMarble(to)) {
+            return MoveStatus.DESTINATION_NOT_EMPTY;
         }
 
         // For triangular board, valid moves are:
         // 1. Horizontal: same row, 2 columns apart
         // 2. Diagonal left: 2 rows apart, 2 columns apart (both decrease)
         // 3. Diagonal right: 2 rows apart, same column (row changes by 2)
-
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-        int midRow = 0;
-        int midCol = 0;
-        boolean validMove = false;
-
-        // Horizontal move (same row, jump 2 columns)
-        if (rowDiff == 0 && Math.abs(colDiff) == 2) {
-            midRow = fromRow;
-            midCol = (fromCol + toCol) / 2;
-            validMove = true;
-        }
-        // Diagonal moves (up or down)
-        else if (Math.abs(rowDiff) == 2) {
-            // Moving down-right or up-left (row and col change by same amount)
-            if (rowDiff == colDiff) {
-                midRow = (fromRow + toRow) / 2;
-                midCol = (fromCol + toCol) / 2;
-                validMove = true;
-            }
-            // Moving down-left or up-right (row changes, col stays same)
-            else if (colDiff == 0) {
-                midRow = (fromRow + toRow) / 2;
-                midCol = fromCol;
-                validMove = true;
-            }
-        }
-
-        if (!validMove) {
-            throw new IllegalArgumentException("Invalid move: not a valid jump");
+        // All of them are listed in the shared jump table.
+        int jump = geometry.findJump(from, to);
+        if (jump < 0) {
+            return MoveStatus.NOT_A_JUMP;
         }
 
         // Check middle position has a marble
-        if (!isValidPosition(midRow, midCol) || board[midRow][midCol] != SlotState.Marble) {
-            throw new IllegalArgumentException("No marble to jump over");
+        if (!hasMarble(geometry.jumpOver(jump))) {
+            return MoveStatus.NO_MARBLE_TO_JUMP_OVER;
         }
 
-        // Execute move
-        board[fromRow][fromCol] = SlotState.Empty;
-        board[midRow][midCol] = SlotState.Empty;
-        board[toRow][toCol] = SlotState.Marble;
+        apply(jump, true);
+        history.record(jump);
+        return MoveStatus.OK;
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(geometry, marbles, TriangleSolitaireModel::new);
+    }
+
+    @Override
+    public void undo() {
+        apply(history.undo(), false);
+    }
+
+    @Override
+    public void redo() {
+        apply(history.redo(), true);
+    }
+
+    @Override
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    @Override
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    /**
+     * Makes or unmakes a jump, re-counting only the jumps that touch the changed
+     * slots.
+     *
+     * @param jump    the jump number in the board geometry
+     * @param forward true to make the jump, false to unmake it
+     */
+    private void apply(int jump, boolean forward) {
+        int before = legalJumpsAround(jump);
+        setMarble(geometry.jumpFrom(jump), !forward);
+        setMarble(geometry.jumpOver(jump), !forward);
+        setMarble(geometry.jumpTo(jump), forward);
+        zobristHash ^= geometry.zobristKey(geometry.jumpFrom(jump))
+                ^ geometry.zobristKey(geometry.jumpOver(jump))
+                ^ geometry.zobristKey(geometry.jumpTo(jump));
+        legalMoves += legalJumpsAround(jump) - before;
+        score += forward ? -1 : 1;
     }
 
     @Override
     public boolean isGameOver() {
-        // Check all positions for possible moves
-        for (int r = 0; r < dimensions; r++) {
-            for (int c = 0; c <= r; c++) {
-                if (board[r][c] == SlotState.Marble) {
-                    // Check all 6 possible move directions
-                    if (canMoveTo(r, c, r, c - 2) ||      // Left
-                            canMoveTo(r, c, r, c + 2) ||      // Right
-                            canMoveTo(r, c, r - 2, c - 2) ||  // Up-left
-                            canMoveTo(r, c, r - 2, c) ||      // Up-right
-                            canMoveTo(r, c, r + 2, c) ||      // Down-left
-                            canMoveTo(r, c, r + 2, c + 2)) {  // Down-right
-                        return false;
+        return legalMoves == 0;
+    }
+
+    @Override
+    public int getLegalMoves(int[] moves) {
+        return enumerateLegalMoves(moves, null);
+    }
+
+    @Override
+    public void forEachLegalMove(IntConsumer action) {
+        enumerateLegalMoves(null, action);
+    }
+
+    /**
+     * Lists the legal jumps in increasing order, writing them to the buffer while it
+     * has room or passing them to the action. Only the jumps from marbles are tested,
+     * found a word at a time, and the scan stops once the running count of legal
+     * jumps has been found.
+     *
+     * @return the number of legal jumps
+     */
+    private int enumerateLegalMoves(int[] moves, IntConsumer action) {
+        int count = 0;
+        for (int w = 0; w < marbles.length && count < legalMoves; w++) {
+            for (long word = marbles[w]; word != 0 && count < legalMoves; word &= word - 1) {
+                int cell = 64 * w + Long.numberOfTrailingZeros(word);
+                for (int i = 0, n = geometry.fromCount(cell); i < n; i++) {
+                    int j = geometry.fromJump(cell, i);
+                    if (isLegal(j)) {
+                        if (action != null) {
+                            action.accept(j);
+                        } else if (count < moves.length) {
+                            moves[count] = j;
+                        }
+                        count++;
                     }
                 }
             }
         }
-        return true;
+        return count;
+    }
+
+    /**
+     * Counts every legal jump on the board.
+     */
+    private int countLegalMoves() {
+        int count = 0;
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            if (isLegal(j)) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
-     * Helper method to check if a move is valid.
+     * Counts the legal jumps that touch any of the three slots of the given jump.
+     * These are the only jumps that making the given jump can create or destroy.
      */
-    private boolean canMoveTo(int fromRow, int fromCol, int toRow, int toCol) {
-        if (!isValidPosition(toRow, toCol)) {
-            return false;
-        }
-        if (board[toRow][toCol] != SlotState.Empty) {
-            return false;
-        }
-
-        // Check for valid jump with marble in middle
-        int rowDiff = toRow - fromRow;
-        int colDiff = toCol - fromCol;
-        int midRow, midCol;
-
-        // Horizontal move
-        if (rowDiff == 0 && Math.abs(colDiff) == 2) {
-            midRow = fromRow;
-            midCol = (fromCol + toCol) / 2;
-        }
-        // Diagonal moves
-        else if (Math.abs(rowDiff) == 2) {
-            if (rowDiff == colDiff) {  // Down-right or up-left
-                midRow = (fromRow + toRow) / 2;
-                midCol = (fromCol + toCol) / 2;
-            } else if (colDiff == 0) {  // Down-left or up-right
-                midRow = (fromRow + toRow) / 2;
-                midCol = fromCol;
-            } else {
-                return false;
+    private int legalJumpsAround(int jump) {
+        int from = geometry.jumpFrom(jump);
+        int over = geometry.jumpOver(jump);
+        return legalJumpsTouching(from, -1, -1)
+                + legalJumpsTouching(over, from, -1)
+                + legalJumpsTouching(geometry.jumpTo(jump), from, over);
+    }
+
+    /**
+     * Counts the legal jumps touching a cell, skipping those that also touch either
+     * of two cells which have already been counted.
+     */
+    private int legalJumpsTouching(int cell, int skip1, int skip2) {
+        int count = 0;
+        for (int i = 0, n = geometry.touchingCount(cell); i < n; i++) {
+            int j = geometry.touchingJump(cell, i);
+            if (!touches(j, skip1) && !touches(j, skip2) && isLegal(j)) {
+                count++;
             }
+        }
+        return count;
+    }
+
+    private boolean touches(int jump, int cell) {
+        return geometry.jumpFrom(jump) == cell || geometry.jumpOver(jump) == cell
+                || geometry.jumpTo(jump) == cell;
+    }
+
+    /**
+     * Checks whether a jump from the geometry's table can be made right now.
+     */
+    private boolean isLegal(int jump) {
+        return hasMarble(geometry.jumpFrom(jump)) && hasMarble(geometry.jumpOver(jump))
+                && !hasMarble(geometry.jumpTo(jump));
+    }
+
+    private boolean hasMarble(int cell) {
+        return (marbles[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private void setMarble(int cell, boolean marble) {
+        if (marble) {
+            marbles[cell >>> 6] |= 1L << cell;
         } else {
-            return false;
+            marbles[cell >>> 6] &= ~(1L << cell);
         }
+    }
 
-        return isValidPosition(midRow, midCol) && board[midRow][midCol] == SlotState.Marble;
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
     }
 
     @Override
@@ -200,18 +342,26 @@ public class TriangleSolitaireModel implements MarbleSolitaireModel {
         if (row < 0 || row >= dimensions || col < 0 || col >= dimensions) {
             throw new IllegalArgumentException("Position out of bounds");
         }
-        return board[row][col];
+        if (!isValidPosition(row, col)) {
+            return SlotState.Invalid;
+        }
+        return hasMarble(row * (row + 1) / 2 + col) ? SlotState.Marble : SlotState.Empty;
     }
 
     @Override
     public int getScore() {
+        return score;
+    }
+
+    @Override
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    private int countMarbles() {
         int count = 0;
-        for (int r = 0; r < dimensions; r++) {
-            for (int c = 0; c <= r; c++) {
-                if (board[r][c] == SlotState.Marble) {
-                    count++;
-                }
-            }
+        for (long word : marbles) {
+            count += Long.bitCount(word);
         }
         return count;
     }
@@ -1,6 +1,7 @@
 package cs3500.marblesolitaire.model.hw04;
 
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel.MoveStatus;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState.SlotState;
 import org.junit.Before;
 import org.junit.Test;
@@ -245,4 +246,133 @@ public class TriangleSolitaireModelTest {
 
         assertEquals(11, game.getScore());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRejectedMoveLeavesScoreAndGameOverUnchanged() {
+        MarbleSolitaireModel size3 = new TriangleSolitaireModel(3);
+        size3.move(2, 2, 0, 0);
+        try {
+            size3.move(2, 1, 2, 3); // Off the board
+            fail("Move should have been rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(4, size3.getScore());
+        assertFalse(size3.isGameOver());
+
+        size3.move(2, 0, 2, 2);
+        size3.move(0, 0, 2, 0);
+        assertEquals(2, size3.getScore());
+        assertTrue(size3.isGameOver());
+    }
+
+    @Test
+    public void testGetLegalMoves() {
+        int[] moves = new int[model.getGeometry().getJumpCount()];
+        assertEquals(2, model.getLegalMoves(moves)); // (2,0) and (2,2) jump into (0,0)
+        model.move(2, 0, 0, 0);
+        int count = model.getLegalMoves(moves);
+        int tried = 0;
+        for (int r = 0; r < 5; r++) {
+            for (int c = 0; c <= r; c++) {
+                for (int tr = 0; tr < 5; tr++) {
+                    for (int tc = 0; tc <= tr; tc++) {
+                        MarbleSolitaireModel copy = new TriangleSolitaireModel(0, 0);
+                        copy.move(2, 0, 0, 0);
+                        try {
+                            copy.move(r, c, tr, tc);
+                            tried++;
+                        } catch (IllegalArgumentException e) {
+                            // not a legal move
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(tried, count);
+
+        int[] seen = new int[1];
+        model.forEachLegalMove(jump -> assertEquals(moves[seen[0]++], jump));
+        assertEquals(count, seen[0]);
+    }
+
+    @Test
+    public void testTryMoveStatuses() {
+        assertEquals(MoveStatus.INVALID_POSITION, model.tryMove(2, 0, 0, 1));
+        assertEquals(MoveStatus.NO_MARBLE_AT_SOURCE, model.tryMove(0, 0, 2, 0));
+        assertEquals(MoveStatus.DESTINATION_NOT_EMPTY, model.tryMove(2, 0, 4, 0));
+        assertEquals(MoveStatus.NOT_A_JUMP, model.tryMove(1, 0, 0, 0));
+        assertEquals(14, model.getScore());
+        assertEquals(MoveStatus.OK, model.tryMove(2, 0, 0, 0));
+        assertEquals(MoveStatus.NO_MARBLE_TO_JUMP_OVER, model.tryMove(0, 0, 2, 0));
+        assertEquals(13, model.getScore());
+    }
+
+    @Test
+    public void testUndoRedo() {
+        model.move(2, 0, 0, 0);
+        model.move(2, 2, 2, 0);
+        model.undo();
+        assertEquals(13, model.getScore());
+        assertEquals(SlotState.Marble, model.getSlotAt(2, 2));
+        assertEquals(SlotState.Marble, model.getSlotAt(2, 1));
+        assertEquals(SlotState.Empty, model.getSlotAt(2, 0));
+        model.undo();
+        assertEquals(14, model.getScore());
+        assertEquals(SlotState.Empty, model.getSlotAt(0, 0));
+        assertFalse(model.canUndo());
+
+        model.redo();
+        model.redo();
+        assertFalse(model.canRedo());
+        assertEquals(12, model.getScore());
+        assertEquals(SlotState.Marble, model.getSlotAt(2, 0));
+    }
+
+    @Test
+    public void testUndoRestoresGameOver() {
+        MarbleSolitaireModel size3 = new TriangleSolitaireModel(3);
+        size3.move(2, 2, 0, 0);
+        size3.move(2, 0, 2, 2);
+        size3.move(0, 0, 2, 0);
+        assertTrue(size3.isGameOver());
+        size3.undo();
+        assertFalse(size3.isGameOver());
+        assertEquals(3, size3.getScore());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRedoWithoutUndo() {
+        model.move(2, 0, 0, 0);
+        model.redo();
+    }
+
+    @Test
+    public void testLargeTriangleSpansWords() {
+        // 15 rows hold 120 holes, two words of the packed board
+        MarbleSolitaireModel large = new TriangleSolitaireModel(15, 12, 6);
+        assertEquals(119, large.getScore());
+        assertEquals(SlotState.Invalid, large.getSlotAt(10, 11));
+        assertEquals(SlotState.Empty, large.getSlotAt(12, 6));
+        // (10, 6) is hole 61 and (11, 6) is hole 72, on either side of the word boundary
+        large.move(10, 6, 12, 6);
+        assertEquals(SlotState.Empty, large.getSlotAt(10, 6));
+        assertEquals(SlotState.Empty, large.getSlotAt(11, 6));
+        assertEquals(SlotState.Marble, large.getSlotAt(12, 6));
+        assertEquals(118, large.getScore());
+        large.undo();
+        assertEquals(SlotState.Marble, large.getSlotAt(11, 6));
+        assertEquals(SlotState.Empty, large.getSlotAt(12, 6));
+    }
+
+    @Test
+    public void testZobristHash() {
+        long start = model.getZobristHash();
+        model.move(2, 0, 0, 0);
+        assertEquals(start ^ model.getGeometry().zobristKey(0) ^ model.getGeometry().zobristKey(1)
+                ^ model.getGeometry().zobristKey(3), model.getZobristHash());
+        assertEquals(model.snapshot().toModel().getZobristHash(), model.getZobristHash());
+        model.undo();
+        assertEquals(start, model.getZobristHash());
+    }
+}
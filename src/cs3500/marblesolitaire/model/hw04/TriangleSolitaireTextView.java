@@ -1,7 +1,8 @@
 package cs3500.marblesolitaire.model.hw04;
 
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
-import cs3500.marblesolitaire.view.MarbleSolitaireView;
+import cs3500.marblesolitaire.view.AbstractTextView;
+import cs3500.marblesolitaire.view.RenderMode;
 
 import java.io.IOException;
 import java.util.Objects;
@@ -9,9 +10,7 @@ import java.util.Objects;
 /**
  * Text view for the Triangle Solitaire game.
  */
-public class TriangleSolitaireTextView implements MarbleSolitaireView {
-    private final MarbleSolitaireModelState model;
-    private final Appendable appendable;
+public class TriangleSolitaireTextView extends AbstractTextView {
 
     /**
      * Constructor using model only, output goes to System.out.
@@ -31,55 +30,67 @@ public class TriangleSolitaireTextView implements MarbleSolitaireView {
      * @throws IllegalArgumentException if model or out is null
      */
     public TriangleSolitaireTextView(MarbleSolitaireModelState model, Appendable out) {
+        this(model, out, RenderMode.FULL);
+    }
+
+    /**
+     * Constructor using model, appendable and how to render the board.
+     *
+     * @param model the model to render
+     * @param out the output destination
+     * @param mode how renderBoard writes the board
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public TriangleSolitaireTextView(MarbleSolitaireModelState model, Appendable out,
+                                     RenderMode mode) {
+        super(requireArguments(model, out, mode), out, mode);
+    }
+
+    private static MarbleSolitaireModelState requireArguments(MarbleSolitaireModelState model,
+                                                              Appendable out, RenderMode mode) {
         if (model == null || out == null) {
             throw new IllegalArgumentException("Model and Appendable cannot be null");
         }
-        this.model = model;
-        this.appendable = out;
+        if (mode == null) {
+            throw new IllegalArgumentException("Render mode cannot be null");
+        }
+        return model;
     }
 
+    /**
+     * Appends one row in the format of toString, without a line break.
+     *
+     * @param r the row to format
+     * @param out the buffer to append it to
+     */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
+    protected void appendRow(int r, StringBuilder out) {
         int size = model.getBoardSize();
+        // Leading spaces to align triangle
+        for (int s = 0; s < size - r - 1; s++) {
+            out.append(' ');
+        }
 
-        for (int r = 0; r < size; r++) {
-            // Leading spaces to align triangle
-            for (int s = 0; s < size - r - 1; s++) {
-                sb.append(" ");
-            }
-
-            for (int c = 0; c <= r; c++) {
-                switch (model.getSlotAt(r, c)) {
-                    case Marble:
-                        sb.append("O");
-                        break;
-                    case Empty:
-                        sb.append("_");
-                        break;
-                    case Invalid:
-                        sb.append(" ");
-                        break;
-                }
-                if (c < r) {
-                    sb.append(" ");
-                }
+        for (int c = 0; c <= r; c++) {
+            switch (model.getSlotAt(r, c)) {
+                case Marble:
+                    out.append('O');
+                    break;
+                case Empty:
+                    out.append('_');
+                    break;
+                case Invalid:
+                    out.append(' ');
+                    break;
             }
-
-            if (r < size - 1) {
-                sb.append("\n");
+            if (c < r) {
+                out.append(' ');
             }
         }
-        return sb.toString();
-    }
-
-    @Override
-    public void renderBoard() throws IOException {
-        appendable.append(this.toString());
     }
 
     @Override
     public void renderMessage(String message) throws IOException {
-        appendable.append(Objects.requireNonNull(message));
+        super.renderMessage(Objects.requireNonNull(message));
     }
 }
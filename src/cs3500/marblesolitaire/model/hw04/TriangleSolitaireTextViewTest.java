@@ -9,6 +9,7 @@ import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 /**
  * Test class for TriangleSolitaireTextView.
@@ -35,6 +36,22 @@ public class TriangleSolitaireTextViewTest {
         new TriangleSolitaireTextView(model, null);
     }
 
+    @Test
+    public void testNullArgumentMessages() {
+        try {
+            new TriangleSolitaireTextView(null, output);
+            fail("Null model should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Model and Appendable cannot be null", e.getMessage());
+        }
+        try {
+            new TriangleSolitaireTextView(model, output, null);
+            fail("Null render mode should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Render mode cannot be null", e.getMessage());
+        }
+    }
+
     @Test
     public void testToStringDefault() {
         String expected =
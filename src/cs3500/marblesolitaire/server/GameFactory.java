@@ -0,0 +1,19 @@
+package cs3500.marblesolitaire.server;
+
+import cs3500.marblesolitaire.controller.MarbleSolitaireController;
+
+/**
+ * Sets up a new game for a connection: its own model, a view writing to the
+ * connection and a controller reading from it.
+ */
+@FunctionalInterface
+public interface GameFactory {
+    /**
+     * Creates the controller of a new game.
+     *
+     * @param in  the input of the connection
+     * @param out the output of the connection
+     * @return a controller ready to play the game
+     */
+    MarbleSolitaireController newGame(Readable in, Appendable out);
+}
@@ -0,0 +1,199 @@
+package cs3500.marblesolitaire.server;
+
+import cs3500.marblesolitaire.view.FlushPolicy;
+import cs3500.marblesolitaire.view.OutputSink;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves games of Marble Solitaire over TCP on the loopback interface, one game per
+ * connection.
+ * <p>
+ * Every accepted connection gets a new controller from the GameFactory and plays on
+ * its own virtual thread, so thousands of games can wait for their players at once
+ * without a platform thread each. The controller reads the socket through an
+ * InputStreamReader and writes through an OutputSink whose policy is
+ * FlushPolicy.EACH_PROMPT, so a turn reaches the player in one write just before the
+ * game waits for the next move. A connection is closed when its game ends, is quit,
+ * or the player stops sending input.
+ */
+public final class GameServer implements AutoCloseable {
+    private static final int BACKLOG = 1024;
+
+    private final ServerSocket serverSocket;
+    private final GameFactory factory;
+    private final ExecutorService games = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private Thread acceptor;
+
+    /**
+     * Creates a server listening on the loopback interface. No connection is accepted
+     * before start is called.
+     *
+     * @param port    the port to listen on, or 0 for any free port
+     * @param factory sets up the game of each connection
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if the factory is null
+     */
+    public GameServer(int port, GameFactory factory) throws IOException {
+        if (factory == null) {
+            throw new IllegalArgumentException("Game factory cannot be null");
+        }
+        this.factory = factory;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Starts accepting connections on a virtual thread.
+     *
+     * @throws IllegalStateException if the server was already started
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        acceptor = Thread.ofVirtual().name("game-server-accept").start(this::acceptConnections);
+    }
+
+    /**
+     * Waits until the server stops accepting connections, which is when it is closed.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    public void awaitClose() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = acceptor;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of connections accepted so far.
+     */
+    public long getConnectionsAccepted() {
+        return accepted.get();
+    }
+
+    /**
+     * Returns the number of connections whose game has ended and that were closed.
+     */
+    public long getGamesFinished() {
+        return finished.get();
+    }
+
+    /**
+     * Returns the number of games being played now.
+     */
+    public int getActiveGames() {
+        return connections.size();
+    }
+
+    /**
+     * Stops accepting connections, closes every open connection and waits for their
+     * games to end.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        // Once the acceptor has stopped no connection can be added behind our back
+        try {
+            awaitClose();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : connections) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Closing anyway
+            }
+        }
+        games.close();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // The server socket was closed
+                return;
+            } catch (IOException e) {
+                continue;
+            }
+            accepted.incrementAndGet();
+            connections.add(socket);
+            try {
+                games.execute(() -> play(socket));
+            } catch (RuntimeException e) {
+                // The executor has been shut down by close
+                connections.remove(socket);
+                closeQuietly(socket);
+                return;
+            }
+        }
+    }
+
+    private void play(Socket socket) {
+        OutputSink out = null;
+        try {
+            socket.setTcpNoDelay(true);
+            Readable in = new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8);
+            out = new OutputSink(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
+                    FlushPolicy.EACH_PROMPT);
+            factory.newGame(in, out).playGame();
+        } catch (IOException | IllegalStateException e) {
+            // The player went away or stopped sending moves
+        } finally {
+            if (out != null) {
+                // Send what the game wrote last, unless the player is already gone
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    // Nothing more can reach the player
+                }
+            }
+            connections.remove(socket);
+            closeQuietly(socket);
+            finished.incrementAndGet();
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing more to do with it
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package cs3500.marblesolitaire.server;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many random games against a GameServer at once and reports how many
+ * connections and moves it served per second.
+ * <p>
+ * Each game is a new connection. The client keeps its own model of the game, so it
+ * only sends legal moves, one at a time, and waits for the server to answer each with
+ * the new board and score before sending the next; a score that differs from its own
+ * counts as an error. A game ends when no move is left, or is quit after a given
+ * number of moves. The client must be told the variant the server plays, and the
+ * server must use the default size and hole of that variant.
+ */
+public final class LoadTestClient {
+    private final int port;
+    private final String gameType;
+    private final int moveLimit;
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Creates a client for a local server.
+     *
+     * @param port      the port of the server
+     * @param gameType  english, european or triangular, as played by the server
+     * @param moveLimit the number of moves after which a game is quit
+     * @throws IllegalArgumentException if the game type is unknown
+     */
+    public LoadTestClient(int port, String gameType, int moveLimit) {
+        newModel(gameType);
+        this.port = port;
+        this.gameType = gameType;
+        this.moveLimit = moveLimit;
+    }
+
+    /**
+     * Plays a number of games over as many connections at a time as asked.
+     *
+     * @param games       the number of games to play
+     * @param concurrency the number of connections open at a time
+     * @param seed        the seed of the random moves
+     * @return a one-line report of the connections and moves per second
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public String run(int games, int concurrency, long seed) throws InterruptedException {
+        moves.set(0);
+        errors.set(0);
+        AtomicInteger next = new AtomicInteger();
+        Thread[] players = new Thread[Math.max(1, Math.min(concurrency, games))];
+        long start = System.nanoTime();
+        for (int t = 0; t < players.length; t++) {
+            players[t] = Thread.ofVirtual().start(() -> {
+                for (int game = next.getAndIncrement(); game < games; game = next.getAndIncrement()) {
+                    try {
+                        playGame(new SplittableRandom(seed + game));
+                    } catch (IOException | RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return String.format("%d games, %d moves, %d errors in %.2f s: %.0f connections/s, %.0f moves/s",
+                games, moves.get(), errors.get(), seconds, games / seconds, moves.get() / seconds);
+    }
+
+    /**
+     * Returns the number of moves the server accepted during the last run.
+     */
+    public long getMoves() {
+        return moves.get();
+    }
+
+    /**
+     * Returns the number of games of the last run that failed or went out of step
+     * with the server.
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    private void playGame(SplittableRandom random) throws IOException {
+        MarbleSolitaireModel model = newModel(gameType);
+        BoardGeometry geometry = model.getGeometry();
+        int[] legal = new int[geometry.getJumpCount()];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            readScore(in, model);
+
+            for (int made = 0; made < moveLimit && !model.isGameOver(); made++) {
+                int jump = legal[random.nextInt(model.getLegalMoves(legal))];
+                int from = geometry.jumpFrom(jump);
+                int to = geometry.jumpTo(jump);
+                model.move(geometry.row(from), geometry.col(from), geometry.row(to), geometry.col(to));
+                out.write((geometry.row(from) + 1) + " " + (geometry.col(from) + 1) + " "
+                        + (geometry.row(to) + 1) + " " + (geometry.col(to) + 1) + "\n");
+                out.flush();
+                readScore(in, model);
+                moves.incrementAndGet();
+            }
+            if (!model.isGameOver()) {
+                out.write("q\n");
+                out.flush();
+            }
+            // The server closes the connection once the game has ended
+            while (in.readLine() != null) {
+                // Skip the final board
+            }
+        }
+    }
+
+    /**
+     * Reads the server's output up to the next score, and checks it against the model.
+     */
+    private static void readScore(BufferedReader in, MarbleSolitaireModel model) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            int at = line.indexOf("Score: ");
+            if (at >= 0) {
+                if (Integer.parseInt(line.substring(at + 7).trim()) != model.getScore()) {
+                    throw new IOException("Server score " + line + " does not match " + model.getScore());
+                }
+                return;
+            }
+        }
+        throw new IOException("Connection closed before the score");
+    }
+
+    private static MarbleSolitaireModel newModel(String gameType) {
+        switch (gameType) {
+            case "english":
+                return new EnglishSolitaireModel();
+            case "european":
+                return new EuropeanSolitaireModel();
+            case "triangular":
+                return new TriangleSolitaireModel();
+            default:
+                throw new IllegalArgumentException("Unknown game type: " + gameType);
+        }
+    }
+
+    /**
+     * Runs a load test against a local server.
+     * <p>
+     * Arguments: the port, then optionally the game type (english), the number of
+     * games (10000), the number of connections at a time (1000) and the number of
+     * moves after which a game is quit (no limit).
+     *
+     * @param args the command-line arguments
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTestClient PORT [english|european|triangular] [GAMES] "
+                    + "[CONNECTIONS] [MOVES]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        String gameType = args.length > 1 ? args[1].toLowerCase() : "english";
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        int moveLimit = args.length > 4 ? Integer.parseInt(args[4]) : Integer.MAX_VALUE;
+
+        LoadTestClient client = new LoadTestClient(port, gameType, moveLimit);
+        System.out.println(client.run(games, concurrency, 1));
+    }
+}
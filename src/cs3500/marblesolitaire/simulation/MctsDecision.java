@@ -0,0 +1,101 @@
+package cs3500.marblesolitaire.simulation;
+
+import cs3500.marblesolitaire.solver.Move;
+
+/**
+ * The move chosen by a tree search, and how much work went into choosing it.
+ */
+public final class MctsDecision {
+    private final Move move;
+    private final int jump;
+    private final long iterations;
+    private final long elapsedNanos;
+    private final long visits;
+    private final double value;
+    private final int bestScore;
+    private final long reusedVisits;
+
+    MctsDecision(Move move, int jump, long iterations, long elapsedNanos, long visits,
+                 double value, int bestScore, long reusedVisits) {
+        this.move = move;
+        this.jump = jump;
+        this.iterations = iterations;
+        this.elapsedNanos = elapsedNanos;
+        this.visits = visits;
+        this.value = value;
+        this.bestScore = bestScore;
+        this.reusedVisits = reusedVisits;
+    }
+
+    /**
+     * Returns the chosen move.
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * Returns the chosen move as a jump number of the board geometry.
+     */
+    public int getJump() {
+        return jump;
+    }
+
+    /**
+     * Returns the number of iterations run by this search.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the wall-clock time of the search in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the number of iterations run per second of wall-clock time.
+     */
+    public double getIterationsPerSecond() {
+        return iterations * 1e9 / Math.max(1, elapsedNanos);
+    }
+
+    /**
+     * Returns the number of playouts that went through the chosen move, including
+     * those kept from earlier searches.
+     */
+    public long getVisits() {
+        return visits;
+    }
+
+    /**
+     * Returns the mean value of the playouts through the chosen move, between 0 when
+     * no marble was removed and 1 when a single marble was left.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the fewest marbles left by any playout of the search.
+     */
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Returns the number of playouts the search started with, kept from the tree of
+     * the previous search.
+     */
+    public long getReusedVisits() {
+        return reusedVisits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d iterations (%.0f/s, %d visits, value %.3f, best %d)",
+                move, iterations, getIterationsPerSecond(), visits, value, bestScore);
+    }
+}
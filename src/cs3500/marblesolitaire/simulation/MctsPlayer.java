@@ -0,0 +1,447 @@
+package cs3500.marblesolitaire.simulation;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.Move;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses moves by Monte Carlo tree search, for boards too large to solve exactly.
+ * <p>
+ * Each iteration walks down the tree from the current position, choosing children by
+ * UCT (mean value plus an exploration bonus that shrinks with visits), expands the
+ * first unvisited child it reaches, finishes the game with random moves and adds the
+ * result to every node on the way. A node stores the sum of the final marble counts
+ * of its playouts, so values are measured against whichever position is the root:
+ * 1 for a playout that leaves a single marble and 0 for one that removes none.
+ * <p>
+ * Several threads search one shared tree, each on its own live model restored from a
+ * snapshot of the position and rewound with undo after every iteration. A thread
+ * adds a virtual loss to each node it passes, counted as a visit that removed no
+ * marbles, until its playout is backed up, which steers the other threads towards
+ * different lines. Nodes are updated under their own lock.
+ * <p>
+ * The player keeps its tree between calls. When the position it is asked about is
+ * the last root or one of its children, as after the chosen move was played, the
+ * search starts from that subtree and keeps its statistics.
+ */
+public final class MctsPlayer {
+    private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+    private final int threads;
+    private final long seed;
+    private final double exploration;
+    private Node root;
+    private BoardSnapshot rootState;
+    private long searches;
+
+    /**
+     * Creates a player searching on every available processor.
+     *
+     * @param seed the seed that determines the random playouts
+     */
+    public MctsPlayer(long seed) {
+        this(Runtime.getRuntime().availableProcessors(), seed, DEFAULT_EXPLORATION);
+    }
+
+    /**
+     * Creates a player.
+     *
+     * @param threads     the number of threads searching the tree
+     * @param seed        the seed that determines the random playouts
+     * @param exploration the weight of the exploration term of UCT
+     * @throws IllegalArgumentException if threads is not positive or exploration is
+     *                                  negative
+     */
+    public MctsPlayer(int threads, long seed, double exploration) {
+        if (threads <= 0 || !(exploration >= 0)) {
+            throw new IllegalArgumentException("Threads must be positive and exploration non-negative");
+        }
+        this.threads = threads;
+        this.seed = seed;
+        this.exploration = exploration;
+    }
+
+    /**
+     * Searches the position of a model for a fixed number of iterations. The model is
+     * only read.
+     *
+     * @param model      the game to choose a move in
+     * @param iterations the number of playouts to run
+     * @return the chosen move and the search statistics
+     * @throws IllegalArgumentException if the model is null or the budget is not
+     *                                  positive
+     * @throws IllegalStateException    if the game is over
+     */
+    public MctsDecision chooseMove(MarbleSolitaireModel model, long iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        return search(model, iterations, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches the position of a model until a time budget runs out. The model is only
+     * read.
+     *
+     * @param model  the game to choose a move in
+     * @param millis the wall-clock budget in milliseconds
+     * @return the chosen move and the search statistics
+     * @throws IllegalArgumentException if the model is null or the budget is not
+     *                                  positive
+     * @throws IllegalStateException    if the game is over
+     */
+    public MctsDecision chooseMoveWithin(MarbleSolitaireModel model, long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+        return search(model, Long.MAX_VALUE, System.nanoTime() + millis * 1_000_000);
+    }
+
+    /**
+     * Forgets the tree, so the next search starts from scratch.
+     */
+    public void reset() {
+        root = null;
+        rootState = null;
+    }
+
+    private MctsDecision search(MarbleSolitaireModel model, long iterations, long deadline) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model cannot be null");
+        }
+        if (model.isGameOver()) {
+            throw new IllegalStateException("Game is over");
+        }
+        long begin = System.nanoTime();
+        BoardSnapshot state = model.snapshot();
+        reuseTree(state);
+        long reused = root.visits;
+        root.expand(model, new int[state.getGeometry().getJumpCount()]);
+
+        Search search = new Search(state, iterations, deadline);
+        long round = searches++;
+        if (threads == 1) {
+            search.run(new SplittableRandom(Simulator.mix(seed ^ Simulator.mix(round + 1))));
+        } else {
+            Thread[] workers = new Thread[threads];
+            Throwable[] failure = new Throwable[1];
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(
+                        Simulator.mix(seed ^ Simulator.mix(round * threads + t + 1)));
+                workers[t] = new Thread(() -> search.run(random), "mcts-" + t);
+                workers[t].setUncaughtExceptionHandler((thread, e) -> failure[0] = e);
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Search interrupted", e);
+                }
+            }
+            if (failure[0] != null) {
+                throw new IllegalStateException("Search failed", failure[0]);
+            }
+        }
+
+        // The most visited child is the move most worth playing
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+        double value;
+        synchronized (best) {
+            value = best.value(state.getScore(), 0);
+        }
+        return new MctsDecision(Move.ofJump(state.getGeometry(), best.jump), best.jump,
+                search.done.get(), System.nanoTime() - begin, best.visits, value,
+                search.bestScore.get(), reused);
+    }
+
+    /**
+     * Makes the node of the given position the root, keeping the old root or one of
+     * its children if the position is theirs.
+     */
+    private void reuseTree(BoardSnapshot state) {
+        if (root != null && rootState.getGeometry() == state.getGeometry()) {
+            if (rootState.equals(state)) {
+                return;
+            }
+            if (root.children != null) {
+                BoardGeometry geometry = state.getGeometry();
+                for (Node child : root.children) {
+                    long[] marbles = rootState.getMarbles();
+                    flip(marbles, geometry.jumpFrom(child.jump));
+                    flip(marbles, geometry.jumpOver(child.jump));
+                    flip(marbles, geometry.jumpTo(child.jump));
+                    if (rootState.withMarbles(marbles).equals(state)) {
+                        root = child;
+                        rootState = state;
+                        return;
+                    }
+                }
+            }
+        }
+        root = new Node(-1);
+        rootState = state;
+    }
+
+    private static void flip(long[] marbles, int cell) {
+        marbles[cell >>> 6] ^= 1L << cell;
+    }
+
+    /**
+     * One search: the shared budget and the iteration run by every thread.
+     */
+    private final class Search {
+        private final BoardSnapshot state;
+        private final int rootScore;
+        private final long iterations;
+        private final long deadline;
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong done = new AtomicLong();
+        private final AtomicInteger bestScore;
+
+        Search(BoardSnapshot state, long iterations, long deadline) {
+            this.state = state;
+            this.rootScore = state.getScore();
+            this.iterations = iterations;
+            this.deadline = deadline;
+            this.bestScore = new AtomicInteger(rootScore);
+        }
+
+        void run(SplittableRandom random) {
+            MarbleSolitaireModel model = state.toModel();
+            BoardGeometry geometry = model.getGeometry();
+            int[] moves = new int[geometry.getJumpCount()];
+            Node[] path = new Node[rootScore + 1];
+            while (started.getAndIncrement() < iterations && System.nanoTime() < deadline) {
+                iterate(model, geometry, moves, path, random);
+                done.incrementAndGet();
+            }
+        }
+
+        private void iterate(MarbleSolitaireModel model, BoardGeometry geometry, int[] moves,
+                             Node[] path, SplittableRandom random) {
+            // Selection and expansion
+            Node node = root;
+            node.addVirtualLoss();
+            path[0] = node;
+            int depth = 0;
+            while (true) {
+                Node[] children = node.expand(model, moves);
+                if (children.length == 0) {
+                    break;
+                }
+                Node child = select(node, children);
+                boolean fresh = child.addVirtualLoss();
+                play(model, geometry, child.jump);
+                path[++depth] = child;
+                node = child;
+                if (fresh) {
+                    break;
+                }
+            }
+
+            // Random playout to the end of the game
+            int played = depth;
+            for (int count = model.getLegalMoves(moves); count > 0;
+                 count = model.getLegalMoves(moves)) {
+                play(model, geometry, moves[random.nextInt(count)]);
+                played++;
+            }
+            int score = model.getScore();
+            for (int best = bestScore.get(); score < best && !bestScore.compareAndSet(best, score);
+                 best = bestScore.get()) {
+                // retry until the best score is at most this one
+            }
+
+            for (int i = 0; i <= depth; i++) {
+                path[i].update(score);
+            }
+            for (int i = 0; i < played; i++) {
+                model.undo();
+            }
+        }
+
+        private Node select(Node parent, Node[] children) {
+            double logVisits = Math.log(Math.max(1, parent.load()));
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                long load;
+                double mean;
+                synchronized (child) {
+                    load = child.visits + child.virtual;
+                    mean = child.value(rootScore, child.virtual);
+                }
+                double value = load == 0 ? Double.POSITIVE_INFINITY
+                        : mean + exploration * Math.sqrt(logVisits / load);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static void play(MarbleSolitaireModel model, BoardGeometry geometry, int jump) {
+        int from = geometry.jumpFrom(jump);
+        int to = geometry.jumpTo(jump);
+        model.move(geometry.row(from), geometry.col(from), geometry.row(to), geometry.col(to));
+    }
+
+    /**
+     * A position of the tree, reached from its parent by one jump.
+     */
+    private static final class Node {
+        private static final Node[] NONE = new Node[0];
+
+        private final int jump;
+        private volatile Node[] children;
+        private long visits;
+        private long virtual;
+        private long finalMarbles;
+
+        Node(int jump) {
+            this.jump = jump;
+        }
+
+        /**
+         * Returns the children of this node, creating one per legal move of the model,
+         * which must be at this node's position, on the first call.
+         */
+        Node[] expand(MarbleSolitaireModel model, int[] moves) {
+            Node[] result = children;
+            if (result == null) {
+                synchronized (this) {
+                    result = children;
+                    if (result == null) {
+                        int count = model.getLegalMoves(moves);
+                        result = count == 0 ? NONE : new Node[count];
+                        for (int i = 0; i < count; i++) {
+                            result[i] = new Node(moves[i]);
+                        }
+                        children = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Counts a visit in progress as a loss until it is backed up.
+         *
+         * @return true if the node had never been visited
+         */
+        synchronized boolean addVirtualLoss() {
+            boolean fresh = visits + virtual == 0;
+            virtual++;
+            return fresh;
+        }
+
+        /**
+         * Backs up a finished playout, replacing one virtual loss.
+         */
+        synchronized void update(int score) {
+            virtual--;
+            visits++;
+            finalMarbles += score;
+        }
+
+        synchronized long load() {
+            return visits + virtual;
+        }
+
+        /**
+         * Returns the mean value of the playouts through this node, counting pending
+         * virtual losses as playouts that left every marble of the root. Must be
+         * called holding the node's lock.
+         */
+        double value(int rootScore, long losses) {
+            long n = visits + losses;
+            if (n == 0 || rootScore <= 1) {
+                return 0;
+            }
+            double meanFinal = (finalMarbles + (double) losses * rootScore) / n;
+            return (rootScore - meanFinal) / (rootScore - 1);
+        }
+    }
+
+    /**
+     * Plays a whole game with the search choosing every move, and prints each move
+     * with its statistics.
+     * <p>
+     * Command line arguments:
+     * - Board type (optional): english, european or triangular; english by default
+     * - Size (optional): -size N, the arm thickness, side length or rows of the board
+     * - Budget (optional): -iterations N per move, 10000 by default, or -millis N per
+     * move
+     * - Parallelism (optional): -threads N, the number of available processors by
+     * default
+     * - Seed (optional): -seed N, 1 by default
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        String board = "english";
+        int size = -1;
+        long iterations = 10_000;
+        long millis = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-size") && i + 1 < args.length) {
+                size = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-iterations") && i + 1 < args.length) {
+                iterations = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-millis") && i + 1 < args.length) {
+                millis = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                board = args[i].toLowerCase();
+            }
+        }
+
+        MarbleSolitaireModel model;
+        switch (board) {
+            case "english":
+                model = size > 0 ? new EnglishSolitaireModel(size) : new EnglishSolitaireModel();
+                break;
+            case "european":
+                model = size > 0 ? new EuropeanSolitaireModel(size) : new EuropeanSolitaireModel();
+                break;
+            case "triangular":
+                model = size > 0 ? new TriangleSolitaireModel(size) : new TriangleSolitaireModel();
+                break;
+            default:
+                System.err.println("Error: Unknown board type " + board);
+                return;
+        }
+
+        MctsPlayer player = new MctsPlayer(threads, seed, DEFAULT_EXPLORATION);
+        while (!model.isGameOver()) {
+            MctsDecision decision = millis > 0 ? player.chooseMoveWithin(model, millis)
+                    : player.chooseMove(model, iterations);
+            Move move = decision.getMove();
+            model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+            System.out.println(decision);
+        }
+        System.out.println("Game over! Score: " + model.getScore());
+    }
+}
@@ -0,0 +1,273 @@
+package cs3500.marblesolitaire.simulation;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+/**
+ * A batch of games on one rectangular board, held as parallel arrays and played out
+ * together without a model object per game.
+ * <p>
+ * The board must fit a single 64-bit word, as the standard 7x7 English and European
+ * boards do. Game i is then the single long boards[i], with one bit per cell index
+ * of the geometry, next to its move count in lengths[i] and the state of its own
+ * xorshift generator in seeds[i]. A rectangular jump in one direction is a fixed bit
+ * offset, so the marbles that can jump in that direction are found for a whole board
+ * with two shifts and three ANDs, and a move is one XOR of three bits.
+ * <p>
+ * step advances every unfinished game by one move in a single loop over the arrays,
+ * and the indexes of the unfinished games are compacted as games end, so later
+ * steps only touch live boards. Each game draws only from its own generator, which
+ * is seeded from the batch seed and the game number, so a game plays the same way
+ * however the batch is stepped.
+ * <p>
+ * getState turns any game back into a BoardSnapshot, which can be read as a
+ * MarbleSolitaireModelState or restored into a live model.
+ */
+public final class PlayoutBatch {
+    private final BoardSnapshot start;
+    private final long startBoard;
+    private final long valid;
+    // Bit offset of the over slot of a jump down, and the cells that can jump right,
+    // left, down and up
+    private final int down;
+    private final long[] jumpable = new long[4];
+    private final long[] boards;
+    private final int[] lengths;
+    private final long[] seeds;
+    // Games still being played are live[0 .. liveCount - 1]
+    private final int[] live;
+    private int liveCount;
+
+    /**
+     * Creates a batch of games, all at the start position.
+     *
+     * @param start the start position of every game; it is copied once
+     * @param size  the number of games
+     * @param seed  the seed that determines every random choice
+     * @throws IllegalArgumentException if the board is not rectangular, has more than
+     *                                  64 cells or cannot be restored into a model, or
+     *                                  the size is not positive
+     */
+    public PlayoutBatch(MarbleSolitaireModelState start, int size, long seed) {
+        BoardGeometry geometry = start.getGeometry();
+        if (geometry.isTriangular() || geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Batches need a rectangular board of at most 64 cells: "
+                    + geometry);
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.start = start.snapshot();
+        this.startBoard = this.start.getMarbles()[0];
+        try {
+            this.start.toModel();
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalArgumentException("No live model for " + geometry, e);
+        }
+
+        long holes = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell)) {
+                holes |= 1L << cell;
+            }
+        }
+        this.valid = holes;
+        this.down = geometry.directionOffset(2);
+        for (int d = 0; d < 4; d++) {
+            jumpable[d] = geometry.directionMask(d);
+        }
+
+        this.boards = new long[size];
+        this.lengths = new int[size];
+        this.seeds = new long[size];
+        this.live = new int[size];
+        for (int i = 0; i < size; i++) {
+            // xorshift state must never be zero
+            long s = Simulator.mix(seed ^ Simulator.mix(i + 1L));
+            seeds[i] = s != 0 ? s : 1;
+        }
+        reset();
+    }
+
+    /**
+     * Puts every game back at the start position. The generators carry on from where
+     * they were, so the next playout differs from the last.
+     */
+    public void reset() {
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = startBoard;
+            lengths[i] = 0;
+            live[i] = i;
+        }
+        liveCount = boards.length;
+    }
+
+    /**
+     * Plays every game to its end choosing moves uniformly at random.
+     *
+     * @return the number of moves made
+     */
+    public long playRandom() {
+        return playHeuristic(0);
+    }
+
+    /**
+     * Plays every game to its end preferring moves that land on some cells: while any
+     * legal move lands on one of them a game picks uniformly among those moves, and
+     * otherwise among all legal moves.
+     *
+     * @param preferredCells one bit per cell index of the cells to land on
+     * @return the number of moves made
+     */
+    public long playHeuristic(long preferredCells) {
+        long preferred = preferredCells & valid;
+        long moves = 0;
+        for (int advanced = advance(preferred); advanced > 0; advanced = advance(preferred)) {
+            moves += advanced;
+        }
+        return moves;
+    }
+
+    /**
+     * Makes one random move in every game that has one, and retires the games that
+     * have none.
+     *
+     * @return the number of games that moved
+     */
+    public int step() {
+        return advance(0);
+    }
+
+    private int advance(long preferred) {
+        long r0 = jumpable[0];
+        long r1 = jumpable[1];
+        long r2 = jumpable[2];
+        long r3 = jumpable[3];
+        int k = down;
+        int kept = 0;
+        for (int n = 0; n < liveCount; n++) {
+            int i = live[n];
+            long m = boards[i];
+            long empty = valid & ~m;
+            long d0 = m & (m >>> 1) & (empty >>> 2) & r0;
+            long d1 = m & (m << 1) & (empty << 2) & r1;
+            long d2 = m & (m >>> k) & (empty >>> (2 * k)) & r2;
+            long d3 = m & (m << k) & (empty << (2 * k)) & r3;
+            if ((d0 | d1 | d2 | d3) == 0) {
+                continue;
+            }
+            if (preferred != 0) {
+                long p0 = d0 & (preferred >>> 2);
+                long p1 = d1 & (preferred << 2);
+                long p2 = d2 & (preferred >>> (2 * k));
+                long p3 = d3 & (preferred << (2 * k));
+                if ((p0 | p1 | p2 | p3) != 0) {
+                    d0 = p0;
+                    d1 = p1;
+                    d2 = p2;
+                    d3 = p3;
+                }
+            }
+
+            int c0 = Long.bitCount(d0);
+            int c1 = Long.bitCount(d1);
+            int c2 = Long.bitCount(d2);
+            int total = c0 + c1 + c2 + Long.bitCount(d3);
+            long s = seeds[i];
+            s ^= s << 13;
+            s ^= s >>> 7;
+            s ^= s << 17;
+            seeds[i] = s;
+            int r = (int) (((s >>> 32) * total) >>> 32);
+
+            long movable;
+            int offset;
+            if (r < c0) {
+                movable = d0;
+                offset = 1;
+            } else if ((r -= c0) < c1) {
+                movable = d1;
+                offset = -1;
+            } else if ((r -= c1) < c2) {
+                movable = d2;
+                offset = k;
+            } else {
+                r -= c2;
+                movable = d3;
+                offset = -k;
+            }
+            for (; r > 0; r--) {
+                movable &= movable - 1;
+            }
+            int from = Long.numberOfTrailingZeros(movable);
+            boards[i] = m ^ (1L << from) ^ (1L << (from + offset)) ^ (1L << (from + 2 * offset));
+            lengths[i]++;
+            live[kept++] = i;
+        }
+        liveCount = kept;
+        return kept;
+    }
+
+    /**
+     * Returns the number of games in the batch.
+     */
+    public int size() {
+        return boards.length;
+    }
+
+    /**
+     * Returns the number of games that have not ended yet.
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Returns the number of marbles left in a game.
+     *
+     * @param game the game number, from 0 to size() - 1
+     * @return the number of marbles
+     */
+    public int getScore(int game) {
+        return Long.bitCount(boards[game]);
+    }
+
+    /**
+     * Returns the number of moves made in a game since the last reset.
+     *
+     * @param game the game number, from 0 to size() - 1
+     * @return the number of moves
+     */
+    public int getLength(int game) {
+        return lengths[game];
+    }
+
+    /**
+     * Returns the current position of a game.
+     *
+     * @param game the game number, from 0 to size() - 1
+     * @return an immutable snapshot of the game, which can be restored into a model
+     *         of the variant of the start position
+     */
+    public BoardSnapshot getState(int game) {
+        return start.withMarbles(new long[]{boards[game]});
+    }
+
+    /**
+     * Tallies the final scores and lengths of the games of the batch.
+     *
+     * @param elapsedNanos the time to report for the playouts
+     * @return the tally
+     */
+    public SimulationResult tally(long elapsedNanos) {
+        int marbles = start.getScore();
+        long[] scores = new long[marbles + 1];
+        long[] gameLengths = new long[marbles + 1];
+        for (int i = 0; i < boards.length; i++) {
+            scores[Long.bitCount(boards[i])]++;
+            gameLengths[lengths[i]]++;
+        }
+        return new SimulationResult(scores, gameLengths, elapsedNanos);
+    }
+}
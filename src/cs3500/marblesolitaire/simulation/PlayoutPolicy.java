@@ -0,0 +1,32 @@
+package cs3500.marblesolitaire.simulation;
+
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the next move of a simulated game.
+ * <p>
+ * Moves are the jump numbers of the board geometry, as listed by
+ * MarbleSolitaireModelState.getLegalMoves. A policy must only draw its randomness
+ * from the generator it is given, so that simulations stay reproducible from their
+ * seed.
+ */
+public interface PlayoutPolicy {
+
+    /**
+     * Picks one of the legal moves uniformly at random.
+     */
+    PlayoutPolicy RANDOM = (state, moves, count, random) -> moves[random.nextInt(count)];
+
+    /**
+     * Chooses a move of the current position.
+     *
+     * @param state  the position; it must not be modified
+     * @param moves  the legal moves of the position in moves[0 .. count - 1]
+     * @param count  the number of legal moves, at least one
+     * @param random the random generator of the game being played
+     * @return the chosen jump number, one of the legal moves
+     */
+    int chooseMove(MarbleSolitaireModelState state, int[] moves, int count, SplittableRandom random);
+}
@@ -0,0 +1,123 @@
+package cs3500.marblesolitaire.simulation;
+
+/**
+ * The outcome of a batch of simulated games: how many games ended with each number
+ * of marbles and how many lasted each number of moves.
+ */
+public final class SimulationResult {
+    private final long[] scores;
+    private final long[] lengths;
+    private final long games;
+    private final long elapsedNanos;
+
+    SimulationResult(long[] scores, long[] lengths, long elapsedNanos) {
+        this.scores = scores.clone();
+        this.lengths = lengths.clone();
+        long total = 0;
+        for (long count : scores) {
+            total += count;
+        }
+        this.games = total;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of games played.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of games that ended with the given number of marbles.
+     *
+     * @param score the number of marbles left
+     * @return the number of games, 0 for scores that cannot occur
+     */
+    public long getScoreCount(int score) {
+        return score >= 0 && score < scores.length ? scores[score] : 0;
+    }
+
+    /**
+     * Returns the number of games that lasted the given number of moves.
+     *
+     * @param length the number of moves made
+     * @return the number of games, 0 for lengths that cannot occur
+     */
+    public long getLengthCount(int length) {
+        return length >= 0 && length < lengths.length ? lengths[length] : 0;
+    }
+
+    /**
+     * Returns the histogram of final scores, indexed by the number of marbles left.
+     */
+    public long[] getScoreHistogram() {
+        return scores.clone();
+    }
+
+    /**
+     * Returns the histogram of game lengths, indexed by the number of moves made.
+     */
+    public long[] getLengthHistogram() {
+        return lengths.clone();
+    }
+
+    /**
+     * Returns the fraction of games that ended with at most the given number of
+     * marbles.
+     *
+     * @param score the largest number of marbles counted
+     * @return the fraction, between 0 and 1
+     */
+    public double fractionAtMost(int score) {
+        long count = 0;
+        for (int s = 0; s <= score && s < scores.length; s++) {
+            count += scores[s];
+        }
+        return games == 0 ? 0 : (double) count / games;
+    }
+
+    /**
+     * Returns the mean number of marbles left at the end of a game.
+     */
+    public double getMeanScore() {
+        long sum = 0;
+        for (int s = 0; s < scores.length; s++) {
+            sum += s * scores[s];
+        }
+        return games == 0 ? 0 : (double) sum / games;
+    }
+
+    /**
+     * Returns the wall-clock time of the simulation in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the score and length histograms, one line per value that occurred.
+     */
+    public String histograms() {
+        StringBuilder sb = new StringBuilder("Final marbles:\n");
+        appendHistogram(sb, scores);
+        sb.append("Game length:\n");
+        appendHistogram(sb, lengths);
+        return sb.toString();
+    }
+
+    private void appendHistogram(StringBuilder sb, long[] histogram) {
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] != 0) {
+                sb.append(String.format("%5d %10d %6.2f%%%n", i, histogram[i],
+                        100.0 * histogram[i] / games));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d games, mean score %.3f (%d ms)", games, getMeanScore(),
+                elapsedNanos / 1_000_000);
+    }
+}
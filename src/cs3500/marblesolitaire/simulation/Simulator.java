@@ -0,0 +1,251 @@
+package cs3500.marblesolitaire.simulation;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays many games from one start position without a controller or a view and
+ * tallies how they end.
+ * <p>
+ * Games are dealt out in fixed chunks. Each chunk is played by one fork/join task
+ * on its own live model, restored from a snapshot of the start position and rewound
+ * with undo after every game, and with its own random generator seeded from the
+ * simulation seed and the chunk number. The chunks and their generators do not
+ * depend on how many threads run them or in which order, so the same seed always
+ * gives the same histograms.
+ */
+public final class Simulator {
+    // Games played by one task with one random generator
+    private static final int CHUNK_GAMES = 256;
+
+    private final BoardSnapshot start;
+    private final PlayoutPolicy policy;
+
+    /**
+     * Creates a simulator of random games.
+     *
+     * @param start the start position of every game; it is copied once
+     * @throws IllegalArgumentException if the start is null
+     */
+    public Simulator(MarbleSolitaireModelState start) {
+        this(start, PlayoutPolicy.RANDOM);
+    }
+
+    /**
+     * Creates a simulator of games whose moves are chosen by a policy.
+     *
+     * @param start  the start position of every game; it is copied once
+     * @param policy chooses every move of every game; it is called from several
+     *               threads at once
+     * @throws IllegalArgumentException if the start or the policy is null, or the
+     *                                  start cannot be turned into a live model
+     */
+    public Simulator(MarbleSolitaireModelState start, PlayoutPolicy policy) {
+        if (start == null || policy == null) {
+            throw new IllegalArgumentException("Start and policy cannot be null");
+        }
+        this.start = start.snapshot();
+        this.policy = policy;
+        try {
+            this.start.toModel();
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalArgumentException("No live model for " + start.getGeometry(), e);
+        }
+    }
+
+    /**
+     * Plays games on all processors of the common fork/join pool.
+     *
+     * @param games the number of games to play
+     * @param seed  the seed that determines every random choice
+     * @return the tally of the games
+     */
+    public SimulationResult run(long games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays games on the workers of a fork/join pool.
+     *
+     * @param games the number of games to play
+     * @param seed  the seed that determines every random choice
+     * @param pool  the pool to play in
+     * @return the tally of the games
+     * @throws IllegalArgumentException if the number of games is negative
+     */
+    public SimulationResult run(long games, long seed, ForkJoinPool pool) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Number of games cannot be negative");
+        }
+        long begin = System.nanoTime();
+        long chunks = (games + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        Tally tally = chunks == 0 ? new Tally(start.getScore())
+                : pool.invoke(new PlayoutTask(this, games, seed, 0, chunks));
+        return new SimulationResult(tally.scores, tally.lengths, System.nanoTime() - begin);
+    }
+
+    /**
+     * Plays one chunk of games on a fresh model.
+     */
+    private Tally playChunk(long chunk, long games, long seed) {
+        Tally tally = new Tally(start.getScore());
+        MarbleSolitaireModel model = start.toModel();
+        BoardGeometry geometry = model.getGeometry();
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(chunk + 1)));
+        int[] moves = new int[geometry.getJumpCount()];
+        long first = chunk * CHUNK_GAMES;
+        long last = Math.min(games, first + CHUNK_GAMES);
+
+        for (long game = first; game < last; game++) {
+            int length = 0;
+            for (int count = model.getLegalMoves(moves); count > 0;
+                 count = model.getLegalMoves(moves)) {
+                int jump = policy.chooseMove(model, moves, count, random);
+                int from = geometry.jumpFrom(jump);
+                int to = geometry.jumpTo(jump);
+                model.move(geometry.row(from), geometry.col(from), geometry.row(to), geometry.col(to));
+                length++;
+            }
+            tally.scores[model.getScore()]++;
+            tally.lengths[length]++;
+            for (int i = 0; i < length; i++) {
+                model.undo();
+            }
+        }
+        return tally;
+    }
+
+    /**
+     * Scrambles a seed so that neighbouring chunk or game numbers get unrelated
+     * generators (the finalizer of MurmurHash3).
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Histograms of final scores and game lengths, indexed by marbles and moves.
+     */
+    private static final class Tally {
+        private final long[] scores;
+        private final long[] lengths;
+
+        Tally(int startMarbles) {
+            this.scores = new long[startMarbles + 1];
+            this.lengths = new long[startMarbles + 1];
+        }
+
+        Tally add(Tally other) {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] += other.scores[i];
+            }
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] += other.lengths[i];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Plays a range of chunks, splitting it in half until a single chunk is left.
+     */
+    private static final class PlayoutTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Simulator simulator;
+        private final long games;
+        private final long seed;
+        private final long lo;
+        private final long hi;
+
+        PlayoutTask(Simulator simulator, long games, long seed, long lo, long hi) {
+            this.simulator = simulator;
+            this.games = games;
+            this.seed = seed;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (hi - lo == 1) {
+                return simulator.playChunk(lo, games, seed);
+            }
+            long mid = (lo + hi) >>> 1;
+            PlayoutTask left = new PlayoutTask(simulator, games, seed, lo, mid);
+            left.fork();
+            Tally right = new PlayoutTask(simulator, games, seed, mid, hi).compute();
+            return right.add(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation and prints its histograms.
+     * <p>
+     * Command line arguments:
+     * - Board type (optional): english, european or triangular; english by default
+     * - Size (optional): -size N, the arm thickness, side length or rows of the board
+     * - Games (optional): -games N, 100000 by default
+     * - Seed (optional): -seed N, 1 by default
+     * - Parallelism (optional): -threads N, the number of available processors by
+     * default
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        String board = "english";
+        int size = -1;
+        long games = 100_000;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-size") && i + 1 < args.length) {
+                size = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-games") && i + 1 < args.length) {
+                games = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                board = args[i].toLowerCase();
+            }
+        }
+
+        MarbleSolitaireModel model;
+        switch (board) {
+            case "english":
+                model = size > 0 ? new EnglishSolitaireModel(size) : new EnglishSolitaireModel();
+                break;
+            case "european":
+                model = size > 0 ? new EuropeanSolitaireModel(size) : new EuropeanSolitaireModel();
+                break;
+            case "triangular":
+                model = size > 0 ? new TriangleSolitaireModel(size) : new TriangleSolitaireModel();
+                break;
+            default:
+                System.err.println("Error: Unknown board type " + board);
+                return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            SimulationResult result = new Simulator(model).run(games, seed, pool);
+            System.out.println(board + ": " + result);
+            System.out.print(result.histograms());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
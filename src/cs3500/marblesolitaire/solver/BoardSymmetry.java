@@ -0,0 +1,284 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The symmetries of a board and a canonical form for positions under them.
+ * <p>
+ * Positions are encoded as one bit per cell of the board geometry in a long, as in
+ * {@link PegSolver}, so only boards with at most 64 cells are supported. Square
+ * boards are tried against the 8 rotations and reflections of the square and
+ * triangular boards against the 6 of the triangle; only those that map the holes of
+ * the board onto themselves are kept.
+ * <p>
+ * Each transform is compiled into lookup tables that map one byte of a position at a
+ * time, so transforming a position is 8 table reads instead of a loop over cells. The
+ * canonical form of a position is the smallest of its transforms, and every position
+ * of a symmetry class has the same canonical form. Instances are cached per geometry.
+ */
+public final class BoardSymmetry {
+    private static final ConcurrentMap<BoardGeometry, BoardSymmetry> CACHE =
+            new ConcurrentHashMap<>();
+
+    private final BoardGeometry geometry;
+    // cell each transform sends each cell to
+    private final int[][] cellMaps;
+    private final int[] inverses;
+    // byteTables[t][8 * 256 entries]: image of byte i with value v is at [i * 256 + v]
+    private final long[][] byteTables;
+
+    private BoardSymmetry(BoardGeometry geometry) {
+        this(geometry, allCellMaps(geometry));
+    }
+
+    private BoardSymmetry(BoardGeometry geometry, int[][] cellMaps) {
+        this.geometry = geometry;
+        this.cellMaps = cellMaps;
+
+        this.inverses = new int[cellMaps.length];
+        for (int t = 0; t < cellMaps.length; t++) {
+            for (int u = 0; u < cellMaps.length; u++) {
+                if (isInverse(cellMaps[t], cellMaps[u])) {
+                    inverses[t] = u;
+                    break;
+                }
+            }
+        }
+
+        this.byteTables = new long[cellMaps.length][8 * 256];
+        for (int t = 0; t < cellMaps.length; t++) {
+            for (int i = 0; i < 8; i++) {
+                for (int v = 0; v < 256; v++) {
+                    long image = 0;
+                    for (int bit = 0; bit < 8; bit++) {
+                        int cell = i * 8 + bit;
+                        if ((v & (1 << bit)) != 0 && cell < geometry.getCellCount()) {
+                            image |= 1L << cellMaps[t][cell];
+                        }
+                    }
+                    byteTables[t][i * 256 + v] = image;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the symmetries of a board.
+     *
+     * @param geometry the board geometry, with at most 64 cells
+     * @return the symmetries of the board
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    public static BoardSymmetry of(BoardGeometry geometry) {
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        return CACHE.computeIfAbsent(geometry, BoardSymmetry::new);
+    }
+
+    private static int[][] allCellMaps(BoardGeometry geometry) {
+        List<int[]> maps = new ArrayList<>();
+        int transforms = geometry.isTriangular() ? 6 : 8;
+        for (int t = 0; t < transforms; t++) {
+            int[] map = cellMap(geometry, t);
+            if (map != null) {
+                maps.add(map);
+            }
+        }
+        return maps.toArray(new int[0][]);
+    }
+
+    /**
+     * Returns the symmetries of the board that leave a position unchanged.
+     * <p>
+     * Positions reached from a start position can only be the image of other reachable
+     * positions under transforms that fix the start, so a search only needs to
+     * canonicalise under this subgroup. For an off-centre start it is usually just
+     * the identity, and canonicalising costs nothing.
+     *
+     * @param position the position, one bit per cell
+     * @return the symmetries fixing the position, numbered from 0 for the identity
+     */
+    public BoardSymmetry subgroupFixing(long position) {
+        List<int[]> maps = new ArrayList<>();
+        for (int t = 0; t < cellMaps.length; t++) {
+            if (transform(position, t) == position) {
+                maps.add(cellMaps[t]);
+            }
+        }
+        return maps.size() == cellMaps.length
+                ? this : new BoardSymmetry(geometry, maps.toArray(new int[0][]));
+    }
+
+    /**
+     * Builds the cell permutation of transform t, or returns null if the transform
+     * does not map the holes of the board onto themselves.
+     */
+    private static int[] cellMap(BoardGeometry geometry, int t) {
+        int n = geometry.getBoardSize();
+        int[] map = new int[geometry.getCellCount()];
+        for (int cell = 0; cell < map.length; cell++) {
+            int r = geometry.row(cell);
+            int c = geometry.col(cell);
+            int row;
+            int col;
+            if (geometry.isTriangular()) {
+                // Permute the three distances to the sides of the triangle
+                int[] sides = {c, r - c, n - 1 - r};
+                int[][] orders = {{0, 1, 2}, {1, 2, 0}, {2, 0, 1}, {1, 0, 2}, {0, 2, 1}, {2, 1, 0}};
+                int a = sides[orders[t][0]];
+                int b = sides[orders[t][1]];
+                row = a + b;
+                col = a;
+            } else {
+                int[][] images = {{r, c}, {c, n - 1 - r}, {n - 1 - r, n - 1 - c}, {n - 1 - c, r},
+                        {r, n - 1 - c}, {n - 1 - r, c}, {c, r}, {n - 1 - c, n - 1 - r}};
+                row = images[t][0];
+                col = images[t][1];
+            }
+            if (geometry.isValid(cell)) {
+                map[cell] = geometry.cellIndex(row, col);
+                if (map[cell] < 0) {
+                    return null;
+                }
+            } else {
+                // Invalid cells never hold marbles; map them to themselves
+                map[cell] = cell;
+            }
+        }
+        return map;
+    }
+
+    private static boolean isInverse(int[] map, int[] other) {
+        for (int cell = 0; cell < map.length; cell++) {
+            if (other[map[cell]] != cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the number of symmetries of the board, including the identity, which
+     * is always transform 0.
+     */
+    public int getTransformCount() {
+        return cellMaps.length;
+    }
+
+    /**
+     * Applies a transform to a position.
+     *
+     * @param position the position, one bit per cell
+     * @param t        the transform number
+     * @return the transformed position
+     */
+    public long transform(long position, int t) {
+        long[] table = byteTables[t];
+        return table[(int) (position & 0xff)]
+                | table[256 + (int) ((position >>> 8) & 0xff)]
+                | table[512 + (int) ((position >>> 16) & 0xff)]
+                | table[768 + (int) ((position >>> 24) & 0xff)]
+                | table[1024 + (int) ((position >>> 32) & 0xff)]
+                | table[1280 + (int) ((position >>> 40) & 0xff)]
+                | table[1536 + (int) ((position >>> 48) & 0xff)]
+                | table[1792 + (int) (position >>> 56)];
+    }
+
+    /**
+     * Returns the canonical form of a position: the smallest of its transforms.
+     *
+     * @param position the position, one bit per cell
+     * @return the canonical position
+     */
+    public long canonical(long position) {
+        long best = position;
+        for (int t = 1; t < cellMaps.length; t++) {
+            long image = transform(position, t);
+            if (Long.compareUnsigned(image, best) < 0) {
+                best = image;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the transform that takes a position to its canonical form.
+     *
+     * @param position the position, one bit per cell
+     * @return the transform number
+     */
+    public int canonicalTransform(long position) {
+        long best = position;
+        int bestTransform = 0;
+        for (int t = 1; t < cellMaps.length; t++) {
+            long image = transform(position, t);
+            if (Long.compareUnsigned(image, best) < 0) {
+                best = image;
+                bestTransform = t;
+            }
+        }
+        return bestTransform;
+    }
+
+    /**
+     * Returns the transform that undoes the given one. A move found on a canonical
+     * position maps back to the original orientation through the inverse of the
+     * canonical transform.
+     *
+     * @param t the transform number
+     * @return the inverse transform number
+     */
+    public int inverse(int t) {
+        return inverses[t];
+    }
+
+    /**
+     * Returns the cell a transform sends a cell to.
+     *
+     * @param cell the cell index
+     * @param t    the transform number
+     * @return the image cell index
+     */
+    public int transformCell(int cell, int t) {
+        return cellMaps[t][cell];
+    }
+
+    /**
+     * Returns the jump a transform sends a jump to.
+     *
+     * @param jump the jump number in the board geometry
+     * @param t    the transform number
+     * @return the image jump number
+     */
+    public int transformJump(int jump, int t) {
+        return geometry.findJump(cellMaps[t][geometry.jumpFrom(jump)],
+                cellMaps[t][geometry.jumpTo(jump)]);
+    }
+
+    /**
+     * Returns the move a transform sends a move to.
+     *
+     * @param move the move
+     * @param t    the transform number
+     * @return the image move
+     */
+    public Move transformMove(Move move, int t) {
+        int from = geometry.cellIndex(move.getFromRow(), move.getFromCol());
+        int to = geometry.cellIndex(move.getToRow(), move.getToCol());
+        int jump = from < 0 || to < 0 ? -1 : geometry.findJump(from, to);
+        if (jump < 0) {
+            throw new IllegalArgumentException("Not a jump on this board: " + move);
+        }
+        return Move.ofJump(geometry, transformJump(jump, t));
+    }
+}
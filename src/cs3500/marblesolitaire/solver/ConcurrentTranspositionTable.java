@@ -0,0 +1,87 @@
+package cs3500.marblesolitaire.solver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free set of board positions shared by the threads of a parallel search.
+ * <p>
+ * Positions live in a fixed-size AtomicLongArray with open addressing. A position is
+ * claimed with a single compare-and-set on a free slot, so readers never block and
+ * writers only retry when they race for the same slot. The table never resizes:
+ * when no free slot is found within a few probes, the position replaces the probed
+ * position with the fewest marbles, if that has fewer marbles than the new one, as in
+ * {@link TranspositionTable}. Losing a replaced position, or a replacement that races
+ * with another writer, is safe because the solver only uses the table to avoid
+ * re-refuting lost positions.
+ */
+final class ConcurrentTranspositionTable implements PositionSet {
+    private static final int MAX_PROBES = 16;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a table with the given number of slots.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    ConcurrentTranspositionTable(int capacity) {
+        int rounded = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.slots = new AtomicLongArray(rounded);
+        this.mask = rounded - 1;
+    }
+
+    @Override
+    public boolean contains(long position) {
+        int i = (int) TranspositionTable.mix(position) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, i = (i + 1) & mask) {
+            long slot = slots.get(i);
+            if (slot == position) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void add(long position) {
+        int i = (int) TranspositionTable.mix(position) & mask;
+        int victim = i;
+        long victimSlot = slots.get(i);
+        for (int probe = 0; probe < MAX_PROBES; probe++, i = (i + 1) & mask) {
+            long slot = slots.get(i);
+            if (slot == position) {
+                return;
+            }
+            if (slot == 0) {
+                if (slots.compareAndSet(i, 0, position)) {
+                    size.incrementAndGet();
+                    return;
+                }
+                // Another thread took the slot first; re-read it
+                slot = slots.get(i);
+                if (slot == position) {
+                    return;
+                }
+            }
+            if (Long.bitCount(slot) < Long.bitCount(victimSlot)) {
+                victim = i;
+                victimSlot = slot;
+            }
+        }
+        // Every probed slot is taken; if another thread changed the victim, give up
+        if (Long.bitCount(victimSlot) < Long.bitCount(position)) {
+            slots.compareAndSet(victim, victimSlot, position);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,74 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+/**
+ * Dense numbering of the positions of a board: the marbles of each hole, taken in
+ * cell order, as consecutive bits of an index.
+ * <p>
+ * Positions hold one bit per cell of the geometry, so rectangular boards leave gaps
+ * for the slots that are not holes; the 33 holes of the English board are spread
+ * over 49 bits. The dense index closes those gaps, so every position of a board with
+ * h holes has an index below 2^h. Conversion goes through one lookup table per byte
+ * of the position, so it costs a handful of table reads.
+ */
+final class HoleIndex {
+    private final BoardGeometry geometry;
+    private final int holeCount;
+    // compress[b][v]: index bits of the holes among cells 8b .. 8b + 7 with marbles v
+    private final long[][] compress;
+
+    /**
+     * Creates the index of a board.
+     *
+     * @param geometry the board geometry
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    HoleIndex(BoardGeometry geometry) {
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        this.geometry = geometry;
+        int[] holeOf = new int[geometry.getCellCount()];
+        int holes = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            holeOf[cell] = geometry.isValid(cell) ? holes++ : -1;
+        }
+        this.holeCount = holes;
+
+        this.compress = new long[(geometry.getCellCount() + 7) >>> 3][256];
+        for (int b = 0; b < compress.length; b++) {
+            for (int v = 0; v < 256; v++) {
+                for (int bit = 0; bit < 8 && 8 * b + bit < geometry.getCellCount(); bit++) {
+                    int hole = holeOf[8 * b + bit];
+                    if ((v & (1 << bit)) != 0 && hole >= 0) {
+                        compress[b][v] |= 1L << hole;
+                    }
+                }
+            }
+        }
+    }
+
+    BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the number of holes, which is the number of bits of an index.
+     */
+    int getHoleCount() {
+        return holeCount;
+    }
+
+    /**
+     * Returns the dense index of a position. Bits of cells that are not holes are
+     * ignored.
+     */
+    long index(long position) {
+        long index = 0;
+        for (int b = 0; b < compress.length; b++) {
+            index |= compress[b][(int) (position >>> (8 * b)) & 0xFF];
+        }
+        return index;
+    }
+}
@@ -0,0 +1,84 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+import java.util.Objects;
+
+/**
+ * A single jump, named by the board coordinates accepted by
+ * {@link cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel#move}. Rows and columns
+ * start at 0.
+ */
+public final class Move {
+    private final int fromRow;
+    private final int fromCol;
+    private final int toRow;
+    private final int toCol;
+
+    /**
+     * Creates a move between two slots.
+     *
+     * @param fromRow the row of the marble that jumps
+     * @param fromCol the column of the marble that jumps
+     * @param toRow   the row it lands on
+     * @param toCol   the column it lands on
+     */
+    public Move(int fromRow, int fromCol, int toRow, int toCol) {
+        this.fromRow = fromRow;
+        this.fromCol = fromCol;
+        this.toRow = toRow;
+        this.toCol = toCol;
+    }
+
+    /**
+     * Creates the move for a jump of a board geometry's jump table.
+     *
+     * @param geometry the board geometry
+     * @param jump     the jump number
+     * @return the move
+     */
+    public static Move ofJump(BoardGeometry geometry, int jump) {
+        int from = geometry.jumpFrom(jump);
+        int to = geometry.jumpTo(jump);
+        return new Move(geometry.row(from), geometry.col(from), geometry.row(to), geometry.col(to));
+    }
+
+    public int getFromRow() {
+        return fromRow;
+    }
+
+    public int getFromCol() {
+        return fromCol;
+    }
+
+    public int getToRow() {
+        return toRow;
+    }
+
+    public int getToCol() {
+        return toCol;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Move)) {
+            return false;
+        }
+        Move other = (Move) o;
+        return fromRow == other.fromRow && fromCol == other.fromCol
+                && toRow == other.toRow && toCol == other.toCol;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fromRow, fromCol, toRow, toCol);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + fromRow + "," + fromCol + ") -> (" + toRow + "," + toCol + ")";
+    }
+}
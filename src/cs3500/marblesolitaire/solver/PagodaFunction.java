@@ -0,0 +1,151 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+import java.util.Arrays;
+
+/**
+ * A pagoda function: a weight for every hole of a board such that no jump can
+ * increase the total weight of the marbles on the board.
+ * <p>
+ * For every jump, the weight of the from hole plus the weight of the over hole must be
+ * at least the weight of the to hole. The pagoda value of a position, the sum of the
+ * weights of its marbles, therefore never grows during a game, and a position whose
+ * value is below that of the goal position can never reach it.
+ */
+public final class PagodaFunction {
+    private final BoardGeometry geometry;
+    private final int[] weights;
+
+    /**
+     * Creates a pagoda function from one weight per cell of a geometry.
+     *
+     * @param geometry the board geometry
+     * @param weights  the weight of each cell; weights of cells that are not holes
+     *                 are ignored
+     * @throws IllegalArgumentException if a weight is negative, the array does not
+     *                                  match the geometry or some jump would increase
+     *                                  the total weight
+     */
+    public PagodaFunction(BoardGeometry geometry, int[] weights) {
+        if (weights.length != geometry.getCellCount()) {
+            throw new IllegalArgumentException("Expected one weight per cell");
+        }
+        this.geometry = geometry;
+        this.weights = weights.clone();
+        for (int cell = 0; cell < weights.length; cell++) {
+            if (!geometry.isValid(cell)) {
+                this.weights[cell] = 0;
+            } else if (weights[cell] < 0) {
+                throw new IllegalArgumentException("Weights cannot be negative");
+            }
+        }
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            if (delta(j) > 0) {
+                throw new IllegalArgumentException("Not a pagoda function: jump " + j
+                        + " increases the total weight");
+            }
+        }
+    }
+
+    /**
+     * Returns the Fibonacci pagoda function of a rectangular board peaked at a hole.
+     * <p>
+     * Along a line of n holes, the weight F(n - 1 - d) at distance d from the peak, with
+     * the Fibonacci numbers F(0) = F(1) = 1, is at most the sum of the two weights beyond
+     * it, so no jump along the line gains weight. The weight of a hole is the product of
+     * the row and column weights, which keeps that property for jumps in both directions
+     * and makes the peak by far the heaviest hole.
+     *
+     * @param geometry the board geometry, which must be rectangular
+     * @param cell     the cell index of the peak
+     * @return the pagoda function
+     * @throws IllegalArgumentException if the board is triangular or the cell is not a
+     *                                  hole
+     */
+    public static PagodaFunction fibonacci(BoardGeometry geometry, int cell) {
+        if (geometry.isTriangular()) {
+            throw new IllegalArgumentException("Fibonacci pagoda functions need a rectangular board");
+        }
+        if (cell < 0 || cell >= geometry.getCellCount() || !geometry.isValid(cell)) {
+            throw new IllegalArgumentException("Not a hole: " + cell);
+        }
+        int size = geometry.getBoardSize();
+        int[] fib = new int[size];
+        for (int i = 0; i < size; i++) {
+            fib[i] = i < 2 ? 1 : fib[i - 1] + fib[i - 2];
+        }
+        int[] weights = new int[geometry.getCellCount()];
+        for (int other = 0; other < weights.length; other++) {
+            if (geometry.isValid(other)) {
+                weights[other] = fib[size - 1 - Math.abs(geometry.row(other) - geometry.row(cell))]
+                        * fib[size - 1 - Math.abs(geometry.col(other) - geometry.col(cell))];
+            }
+        }
+        return new PagodaFunction(geometry, weights);
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the weight of a cell.
+     *
+     * @param cell the cell index
+     * @return the weight, 0 for cells that are not holes
+     */
+    public int weight(int cell) {
+        return weights[cell];
+    }
+
+    /**
+     * Returns the change in pagoda value made by a jump, which is never positive.
+     *
+     * @param jump the jump number in the board geometry
+     * @return the weight of the to hole minus those of the from and over holes
+     */
+    public int delta(int jump) {
+        return weights[geometry.jumpTo(jump)] - weights[geometry.jumpFrom(jump)]
+                - weights[geometry.jumpOver(jump)];
+    }
+
+    /**
+     * Returns the pagoda value of a position with one bit per cell.
+     *
+     * @param position the position
+     * @return the sum of the weights of its marbles
+     */
+    public int value(long position) {
+        int value = 0;
+        for (long bits = position; bits != 0; bits &= bits - 1) {
+            value += weights[Long.numberOfTrailingZeros(bits)];
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PagodaFunction && ((PagodaFunction) o).geometry == geometry
+                && Arrays.equals(((PagodaFunction) o).weights, weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int size = geometry.getBoardSize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int cell = geometry.cellIndex(r, c);
+                sb.append(c > 0 ? " " : "").append(cell < 0 ? " " : String.valueOf(weights[cell]));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
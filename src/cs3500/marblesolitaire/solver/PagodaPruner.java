@@ -0,0 +1,288 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Detects positions that can no longer finish with a single marble in a set of goal
+ * holes, using a library of pagoda functions.
+ * <p>
+ * The goal position with its one marble in hole c has pagoda value weight(c). A
+ * position whose value under some function is below weight(c) can never reach it, so
+ * each function rules out the goal holes that are heavier than the current value. A
+ * position is dead once every goal hole has been ruled out.
+ * <p>
+ * The pruner keeps no state of its own. Callers hold one int per function, set by
+ * init, and update them with apply and undo as moves are made and unmade; each update
+ * adds a precomputed delta per function, so checking a position costs a few
+ * additions and mask operations.
+ * <p>
+ * The built-in library is generated for any board of at most 64 cells, which covers
+ * the English, European and triangular boards. Each function is 1 on the holes outside
+ * a set of holes closed under jumping (a jump from and over holes of the set always
+ * lands in the set) and 0 inside it, which makes it a pagoda function. For every hole
+ * the generator keeps the smallest such function that is still 1 on that hole. These
+ * 0/1 functions cut positions that cannot reach a goal hole at all; the weighted
+ * Fibonacci functions added for each goal hole of a rectangular board also cut those
+ * that can still reach it, but no longer with enough marbles left near it.
+ */
+public final class PagodaPruner {
+    private static final ConcurrentMap<BoardGeometry, List<PagodaFunction>> LIBRARY =
+            new ConcurrentHashMap<>();
+    // Random closed sets tried per hole when generating the library
+    private static final int TRIALS_PER_HOLE = 32;
+
+    private final BoardGeometry geometry;
+    private final PagodaFunction[] functions;
+    // deltas[jump * functionCount + f]: change in the value of function f made by a jump
+    private final int[] deltas;
+    // allowed[f][v]: goal holes no heavier than v under function f
+    private final long[][] allowed;
+    private final long goalCells;
+
+    /**
+     * Creates a pruner for the goal of finishing with a single marble in any of the
+     * given holes.
+     *
+     * @param functions the pagoda functions to apply, all on the same geometry
+     * @param goalCells the goal holes, one bit per cell
+     * @throws IllegalArgumentException if there are no functions, they are on different
+     *                                  geometries, or the board has more than 64 cells
+     */
+    public PagodaPruner(List<PagodaFunction> functions, long goalCells) {
+        if (functions.isEmpty()) {
+            throw new IllegalArgumentException("At least one pagoda function is required");
+        }
+        this.geometry = functions.get(0).getGeometry();
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        this.functions = functions.toArray(new PagodaFunction[0]);
+        this.goalCells = goalCells;
+
+        int count = this.functions.length;
+        int jumps = geometry.getJumpCount();
+        this.deltas = new int[jumps * count];
+        this.allowed = new long[count][];
+        for (int f = 0; f < count; f++) {
+            PagodaFunction function = this.functions[f];
+            if (function.getGeometry() != geometry) {
+                throw new IllegalArgumentException("Pagoda functions must share one geometry");
+            }
+            for (int j = 0; j < jumps; j++) {
+                deltas[j * count + f] = function.delta(j);
+            }
+            int heaviest = 0;
+            for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                heaviest = Math.max(heaviest, function.weight(cell));
+            }
+            allowed[f] = new long[heaviest];
+            for (int v = 0; v < heaviest; v++) {
+                for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+                    if (function.weight(cell) <= v) {
+                        allowed[f][v] |= 1L << cell;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a pruner using the built-in library of a board, for the goal of finishing
+     * with a single marble in any of the given holes. Library functions that are 0 on
+     * every goal hole are left out, and on rectangular boards the
+     * {@link PagodaFunction#fibonacci Fibonacci} function peaked at each goal hole is
+     * added.
+     *
+     * @param geometry  the board geometry
+     * @param goalCells the goal holes, one bit per cell
+     * @return the pruner
+     */
+    public static PagodaPruner forGeometry(BoardGeometry geometry, long goalCells) {
+        List<PagodaFunction> functions = new ArrayList<>();
+        for (PagodaFunction function : library(geometry)) {
+            // A function that weighs nothing on the goal holes can never rule them out
+            if (function.value(goalCells) > 0) {
+                functions.add(function);
+            }
+        }
+        if (!geometry.isTriangular()) {
+            for (long bits = goalCells; bits != 0; bits &= bits - 1) {
+                functions.add(PagodaFunction.fibonacci(geometry, Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return new PagodaPruner(functions, goalCells);
+    }
+
+    /**
+     * Returns the built-in pagoda functions of a board, generating them on first use.
+     *
+     * @param geometry the board geometry, with at most 64 cells
+     * @return the pagoda functions
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    public static List<PagodaFunction> library(BoardGeometry geometry) {
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        return LIBRARY.computeIfAbsent(geometry, PagodaPruner::generate);
+    }
+
+    private static List<PagodaFunction> generate(BoardGeometry geometry) {
+        List<Integer> holes = new ArrayList<>();
+        long valid = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell)) {
+                holes.add(cell);
+                valid |= 1L << cell;
+            }
+        }
+
+        // Fixed seed, so the library is the same on every run
+        Random random = new Random(holes.size());
+        Set<Long> supports = new LinkedHashSet<>();
+        for (int hole : holes) {
+            long best = 0;
+            for (int trial = 0; trial < TRIALS_PER_HOLE; trial++) {
+                // Grow a closed set that avoids the hole, adding holes in random order
+                List<Integer> order = new ArrayList<>(holes);
+                Collections.shuffle(order, random);
+                long closed = 0;
+                for (int cell : order) {
+                    long grown = closure(geometry, closed | (1L << cell));
+                    if ((grown & (1L << hole)) == 0) {
+                        closed = grown;
+                    }
+                }
+                long support = valid & ~closed;
+                if (best == 0 || Long.bitCount(support) < Long.bitCount(best)) {
+                    best = support;
+                }
+            }
+            if (best != valid) {
+                supports.add(best);
+            }
+        }
+
+        List<PagodaFunction> functions = new ArrayList<>();
+        for (long support : supports) {
+            int[] weights = new int[geometry.getCellCount()];
+            for (int cell = 0; cell < weights.length; cell++) {
+                weights[cell] = (int) ((support >>> cell) & 1);
+            }
+            functions.add(new PagodaFunction(geometry, weights));
+        }
+        return Collections.unmodifiableList(functions);
+    }
+
+    /**
+     * Returns the smallest set of holes containing the given ones that is closed under
+     * jumping: every jump from and over holes of the set lands in the set.
+     */
+    private static long closure(BoardGeometry geometry, long cells) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int j = 0; j < geometry.getJumpCount(); j++) {
+                long pegs = (1L << geometry.jumpFrom(j)) | (1L << geometry.jumpOver(j));
+                long to = 1L << geometry.jumpTo(j);
+                if ((cells & pegs) == pegs && (cells & to) == 0) {
+                    cells |= to;
+                    changed = true;
+                }
+            }
+        }
+        return cells;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the number of pagoda functions, which is the length of the value arrays
+     * callers must provide.
+     */
+    public int getFunctionCount() {
+        return functions.length;
+    }
+
+    /**
+     * Computes the pagoda values of a position.
+     *
+     * @param position the position, one bit per cell
+     * @param values   receives one value per function
+     */
+    public void init(long position, int[] values) {
+        for (int f = 0; f < functions.length; f++) {
+            values[f] = functions[f].value(position);
+        }
+    }
+
+    /**
+     * Updates pagoda values for a jump being made.
+     *
+     * @param jump   the jump number in the board geometry
+     * @param values the values of the position before the jump
+     */
+    public void apply(int jump, int[] values) {
+        int base = jump * functions.length;
+        for (int f = 0; f < values.length; f++) {
+            values[f] += deltas[base + f];
+        }
+    }
+
+    /**
+     * Updates pagoda values for a jump being taken back.
+     *
+     * @param jump   the jump number in the board geometry
+     * @param values the values of the position after the jump
+     */
+    public void undo(int jump, int[] values) {
+        int base = jump * functions.length;
+        for (int f = 0; f < values.length; f++) {
+            values[f] -= deltas[base + f];
+        }
+    }
+
+    /**
+     * Checks whether a position with the given pagoda values can no longer finish with
+     * a single marble in a goal hole.
+     *
+     * @param values the pagoda values of the position
+     * @return true if the position is lost
+     */
+    public boolean isDead(int[] values) {
+        long possible = goalCells;
+        for (int f = 0; f < values.length; f++) {
+            if (values[f] < allowed[f].length) {
+                possible &= allowed[f][values[f]];
+                if (possible == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a position can no longer finish with a single marble in a goal
+     * hole, computing its pagoda values from scratch.
+     *
+     * @param position the position, one bit per cell
+     * @return true if the position is lost
+     */
+    public boolean isDead(long position) {
+        int[] values = new int[functions.length];
+        init(position, values);
+        return isDead(values);
+    }
+}
@@ -0,0 +1,474 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exhaustive depth-first solver for peg solitaire positions.
+ * <p>
+ * The solver works on a copy of the position, encoded as one bit per cell of the
+ * board geometry in a single long, so it supports every board whose geometry has at
+ * most 64 cells: the standard English and European boards and triangles of up to
+ * 10 rows. Each jump of the geometry becomes a pair of masks, so testing and making
+ * a move are a few bitwise operations.
+ * <p>
+ * Every position found to be lost is recorded in a transposition table. The same
+ * position is reached by many move orders, and the table stops the search from
+ * refuting it again, which is what turns the 33-hole English board from hours into
+ * well under a second. The table has a maximum size, past which it replaces the
+ * positions with the fewest marbles, so a long search runs in bounded memory.
+ * Positions are stored in their canonical form under the symmetries of the board that
+ * fix the start position (and goal hole, if any), so from a symmetric start a
+ * refutation also covers every rotation and reflection of the position.
+ * <p>
+ * When the goal is a single marble, it is first narrowed to the holes of the start's
+ * {@link PositionClass}, the only ones a game can finish in; a start with no such
+ * hole is lost without any search. Positions are then checked against the pagoda
+ * functions of the board, whose values are updated incrementally with every move,
+ * and cut as soon as the functions together rule out every remaining goal hole. A
+ * solver given an endgame {@link Tablebase} looks up every position with few enough
+ * marbles instead of searching it, and only follows moves the table marks as solvable
+ * from there on.
+ * <p>
+ * The parallel mode splits the game tree into fork/join tasks for the first few
+ * moves and searches each subtree sequentially below that. All threads share one
+ * lock-free transposition table, so a refutation found by one worker prunes the
+ * others, and the first solution found stops the remaining tasks.
+ */
+public final class PegSolver {
+    // Depth up to which the parallel search forks one task per legal move
+    private static final int SPLIT_DEPTH = 4;
+    // Default slots in the shared table of the parallel search (2^23 slots use 64 MB)
+    private static final int PARALLEL_TABLE_CAPACITY = 1 << 23;
+
+    private final BoardGeometry geometry;
+    private final long start;
+    private final long holes;
+    private final Tablebase endgame;
+    private final PositionClass classes;
+    // Cells that must hold marbles (from and over) and must be empty (to) per jump
+    private final long[] jumpPegs;
+    private final long[] jumpHoles;
+
+    /**
+     * Creates a solver for the current position of a game.
+     *
+     * @param state the position to solve; it is read once and never modified
+     * @throws IllegalArgumentException if the state is null or its board is too large
+     *                                  to encode in 64 bits
+     */
+    public PegSolver(MarbleSolitaireModelState state) {
+        this(state, null);
+    }
+
+    /**
+     * Creates a solver for the current position of a game that finishes single-marble
+     * searches with an endgame tablebase.
+     *
+     * @param state   the position to solve; it is read once and never modified
+     * @param endgame the tablebase of the board, or null to search to the end
+     * @throws IllegalArgumentException if the state is null, its board is too large to
+     *                                  encode in 64 bits or the tablebase is for
+     *                                  another board
+     */
+    public PegSolver(MarbleSolitaireModelState state, Tablebase endgame) {
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        this.geometry = state.getGeometry();
+        this.start = Positions.of(state, geometry);
+        if (endgame != null && endgame.getGeometry() != geometry) {
+            throw new IllegalArgumentException("Tablebase is for another board: "
+                    + endgame.getGeometry());
+        }
+        this.endgame = endgame;
+        long valid = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell)) {
+                valid |= 1L << cell;
+            }
+        }
+        this.holes = valid;
+        this.classes = new PositionClass(geometry);
+        int jumps = geometry.getJumpCount();
+        this.jumpPegs = new long[jumps];
+        this.jumpHoles = new long[jumps];
+        for (int j = 0; j < jumps; j++) {
+            jumpPegs[j] = (1L << geometry.jumpFrom(j)) | (1L << geometry.jumpOver(j));
+            jumpHoles[j] = 1L << geometry.jumpTo(j);
+        }
+    }
+
+    /**
+     * Searches for a sequence of moves that leaves a single marble.
+     *
+     * @return the result of the search
+     */
+    public SolverResult solve() {
+        return solve(1);
+    }
+
+    /**
+     * Searches for a sequence of moves that leaves exactly the given number of marbles.
+     *
+     * @param targetMarbles the number of marbles to finish with
+     * @return the result of the search
+     * @throws IllegalArgumentException if the target is less than 1
+     */
+    public SolverResult solve(int targetMarbles) {
+        return solve(goal(targetMarbles, holes), TranspositionTable.DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Searches for a sequence of moves that leaves exactly the given number of marbles,
+     * with a transposition table that grows to at most the given number of slots. Once
+     * the table is full, new lost positions replace those with fewer marbles.
+     *
+     * @param targetMarbles    the number of marbles to finish with
+     * @param maxTableCapacity the most slots the table may use
+     * @return the result of the search
+     * @throws IllegalArgumentException if the target is less than 1 or the capacity is
+     *                                  not positive
+     */
+    public SolverResult solve(int targetMarbles, int maxTableCapacity) {
+        if (maxTableCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        return solve(goal(targetMarbles, holes), maxTableCapacity);
+    }
+
+    /**
+     * Searches for a sequence of moves that leaves a single marble in the given hole.
+     *
+     * @param row the row of the hole the last marble must finish in
+     * @param col the column of the hole the last marble must finish in
+     * @return the result of the search
+     * @throws IllegalArgumentException if the position is not a hole of the board
+     */
+    public SolverResult solveTo(int row, int col) {
+        int cell = geometry.cellIndex(row, col);
+        if (cell < 0) {
+            throw new IllegalArgumentException("Invalid goal position (" + row + "," + col + ")");
+        }
+        return solve(goal(1, 1L << cell), TranspositionTable.DEFAULT_MAX_CAPACITY);
+    }
+
+    private SolverResult solve(Goal goal, int maxTableCapacity) {
+        long startTime = System.nanoTime();
+        Search search = new Search(goal, new TranspositionTable(1 << 16, maxTableCapacity),
+                new int[Math.max(0, goal.moves)], null);
+        boolean solved = goal.moves >= 0 && search.begin(start, 0);
+        return result(solved, search.path, search.nodes, search.tableHits, search.pagodaCuts,
+                search.endgameCuts, search.table.size(), startTime);
+    }
+
+    /**
+     * Searches in parallel, on the common fork/join pool, for a sequence of moves
+     * that leaves a single marble.
+     *
+     * @return the result of the search
+     */
+    public SolverResult solveParallel() {
+        return solveParallel(1, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Searches in parallel for a sequence of moves that leaves exactly the given
+     * number of marbles.
+     *
+     * @param targetMarbles the number of marbles to finish with
+     * @param pool          the pool whose workers run the search
+     * @return the result of the search
+     * @throws IllegalArgumentException if the target is less than 1 or the pool is null
+     */
+    public SolverResult solveParallel(int targetMarbles, ForkJoinPool pool) {
+        return solveParallel(targetMarbles, pool, PARALLEL_TABLE_CAPACITY);
+    }
+
+    /**
+     * Searches in parallel for a sequence of moves that leaves exactly the given
+     * number of marbles, with a shared transposition table of the given size. Once
+     * the table is full, positions with more marbles replace those with fewer, so a
+     * long search, such as most European starts, keeps refuting positions it has
+     * already seen near the root.
+     *
+     * @param targetMarbles the number of marbles to finish with
+     * @param pool          the pool whose workers run the search
+     * @param tableCapacity the number of slots in the shared table
+     * @return the result of the search
+     * @throws IllegalArgumentException if the target is less than 1, the pool is null
+     *                                  or the capacity is not positive
+     */
+    public SolverResult solveParallel(int targetMarbles, ForkJoinPool pool, int tableCapacity) {
+        if (pool == null || tableCapacity <= 0) {
+            throw new IllegalArgumentException("Pool cannot be null and capacity must be positive");
+        }
+        Goal goal = goal(targetMarbles, holes);
+        long startTime = System.nanoTime();
+        ParallelSearch shared = new ParallelSearch(this, goal,
+                new ConcurrentTranspositionTable(tableCapacity));
+        boolean solved = goal.moves >= 0
+                && pool.invoke(new SplitTask(shared, start, new int[0]));
+        int[] path = solved ? shared.solution.get() : new int[0];
+        return result(solved, path, shared.nodes.sum(), shared.tableHits.sum(),
+                shared.pagodaCuts.sum(), shared.endgameCuts.sum(), shared.table.size(),
+                startTime);
+    }
+
+    private Goal goal(int targetMarbles, long goalCells) {
+        if (targetMarbles < 1) {
+            throw new IllegalArgumentException("Target must be at least one marble");
+        }
+        // The tablebase only knows whether one marble anywhere can be reached
+        Tablebase tablebase = targetMarbles == 1 && goalCells == holes ? endgame : null;
+        int moves = Long.bitCount(start) - targetMarbles;
+        if (targetMarbles == 1) {
+            // The last marble can only finish in a hole of the start's class
+            goalCells = classes.singleMarbleHoles(start, goalCells);
+            if (goalCells == 0) {
+                moves = -1;
+            }
+        }
+        BoardSymmetry symmetry = BoardSymmetry.of(geometry).subgroupFixing(start)
+                .subgroupFixing(goalCells);
+        // A position is cut once the pagoda functions together rule out every goal hole
+        PagodaPruner pruner = targetMarbles == 1 && goalCells != 0
+                && !PagodaPruner.library(geometry).isEmpty()
+                ? PagodaPruner.forGeometry(geometry, goalCells) : null;
+        return new Goal(moves, goalCells, symmetry, pruner, tablebase);
+    }
+
+    private SolverResult result(boolean solved, int[] path, long nodes, long tableHits,
+                                long pagodaCuts, long endgameCuts, int tableSize,
+                                long startTime) {
+        List<Move> moves = new ArrayList<>();
+        if (solved) {
+            for (int jump : path) {
+                moves.add(Move.ofJump(geometry, jump));
+            }
+        }
+        return new SolverResult(solved, moves, nodes, tableHits, pagodaCuts, endgameCuts,
+                tableSize, System.nanoTime() - startTime);
+    }
+
+    /**
+     * What a search is looking for: the number of moves to make, the holes the marbles
+     * may finish in, and the symmetries, pagoda functions and tablebase that respect
+     * that goal.
+     */
+    private static final class Goal {
+        private final int moves;
+        private final long goalCells;
+        private final BoardSymmetry symmetry;
+        private final PagodaPruner pruner;
+        private final Tablebase endgame;
+
+        Goal(int moves, long goalCells, BoardSymmetry symmetry, PagodaPruner pruner,
+             Tablebase endgame) {
+            this.moves = moves;
+            this.goalCells = goalCells;
+            this.symmetry = symmetry;
+            this.pruner = pruner;
+            this.endgame = endgame;
+        }
+
+        /**
+         * Checks whether the tablebase covers a position and knows it to be lost. The
+         * goal of a search with a tablebase is one marble, so the position has one
+         * marble more than the moves left.
+         */
+        boolean isLostEndgame(long position, int movesLeft) {
+            return endgame != null && movesLeft < endgame.getMaxMarbles()
+                    && !endgame.isSolvable(position);
+        }
+    }
+
+    /**
+     * The state of one sequential search: its table, the moves on the current line,
+     * the pagoda values of the current position and its counters. A parallel search
+     * runs one of these per subtree.
+     */
+    private final class Search {
+        private final Goal goal;
+        private final PositionSet table;
+        private final int[] path;
+        private final int[] pagoda;
+        private final ParallelSearch parallel;
+        private long nodes;
+        private long tableHits;
+        private long pagodaCuts;
+        private long endgameCuts;
+
+        Search(Goal goal, PositionSet table, int[] path, ParallelSearch parallel) {
+            this.goal = goal;
+            this.table = table;
+            this.path = path;
+            this.pagoda = goal.pruner == null ? null : new int[goal.pruner.getFunctionCount()];
+            this.parallel = parallel;
+        }
+
+        boolean isStopped() {
+            return parallel != null && parallel.solution.get() != null;
+        }
+
+        /**
+         * Searches from a position reached after the given number of moves.
+         */
+        boolean begin(long position, int depth) {
+            if (pagoda != null) {
+                goal.pruner.init(position, pagoda);
+            }
+            return search(position, depth, goal.moves - depth);
+        }
+
+        /**
+         * Depth-first search from a position that still needs the given number of
+         * moves. Positions are only recorded as lost once every move from them has been
+         * refuted, never when the search is stopped early.
+         *
+         * @return true if the goal is reachable, with the moves left in the path
+         */
+        private boolean search(long position, int depth, int movesLeft) {
+            if (movesLeft == 0) {
+                return (position & goal.goalCells) != 0;
+            }
+            if (goal.isLostEndgame(position, movesLeft)) {
+                endgameCuts++;
+                return false;
+            }
+            long key = goal.symmetry.canonical(position);
+            if (table.contains(key)) {
+                tableHits++;
+                return false;
+            }
+            if (pagoda != null && goal.pruner.isDead(pagoda)) {
+                pagodaCuts++;
+                return false;
+            }
+            if (isStopped()) {
+                return false;
+            }
+            nodes++;
+            for (int j = 0; j < jumpPegs.length; j++) {
+                if ((position & jumpPegs[j]) == jumpPegs[j] && (position & jumpHoles[j]) == 0) {
+                    path[depth] = j;
+                    if (pagoda != null) {
+                        goal.pruner.apply(j, pagoda);
+                    }
+                    boolean solved = search(position ^ jumpPegs[j] ^ jumpHoles[j], depth + 1,
+                            movesLeft - 1);
+                    if (pagoda != null) {
+                        goal.pruner.undo(j, pagoda);
+                    }
+                    if (solved) {
+                        return true;
+                    }
+                }
+            }
+            if (!isStopped()) {
+                table.add(key);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * State shared by every task of a parallel search.
+     */
+    private static final class ParallelSearch {
+        private final PegSolver solver;
+        private final Goal goal;
+        private final PositionSet table;
+        private final AtomicReference<int[]> solution = new AtomicReference<>();
+        private final LongAdder nodes = new LongAdder();
+        private final LongAdder tableHits = new LongAdder();
+        private final LongAdder pagodaCuts = new LongAdder();
+        private final LongAdder endgameCuts = new LongAdder();
+
+        ParallelSearch(PegSolver solver, Goal goal, PositionSet table) {
+            this.solver = solver;
+            this.goal = goal;
+            this.table = table;
+        }
+    }
+
+    /**
+     * Searches the subtree below one position, forking a task per legal move near
+     * the root and searching sequentially below the split depth.
+     */
+    private static final class SplitTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ParallelSearch shared;
+        private final long position;
+        private final int[] prefix;
+
+        SplitTask(ParallelSearch shared, long position, int[] prefix) {
+            this.shared = shared;
+            this.position = position;
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected Boolean compute() {
+            PegSolver solver = shared.solver;
+            Goal goal = shared.goal;
+            int depth = prefix.length;
+            if (depth >= SPLIT_DEPTH || depth == goal.moves) {
+                Search search = solver.new Search(goal, shared.table,
+                        Arrays.copyOf(prefix, goal.moves), shared);
+                boolean solved = search.begin(position, depth);
+                shared.nodes.add(search.nodes);
+                shared.tableHits.add(search.tableHits);
+                shared.pagodaCuts.add(search.pagodaCuts);
+                shared.endgameCuts.add(search.endgameCuts);
+                if (solved) {
+                    shared.solution.compareAndSet(null, search.path);
+                }
+                return solved;
+            }
+            if (goal.isLostEndgame(position, goal.moves - depth)) {
+                shared.endgameCuts.increment();
+                return false;
+            }
+            if (goal.pruner != null && goal.pruner.isDead(position)) {
+                shared.pagodaCuts.increment();
+                return false;
+            }
+            long key = goal.symmetry.canonical(position);
+            if (shared.table.contains(key)) {
+                shared.tableHits.increment();
+                return false;
+            }
+            shared.nodes.increment();
+
+            List<SplitTask> children = new ArrayList<>();
+            long[] jumpPegs = solver.jumpPegs;
+            long[] jumpHoles = solver.jumpHoles;
+            for (int j = 0; j < jumpPegs.length; j++) {
+                if ((position & jumpPegs[j]) == jumpPegs[j] && (position & jumpHoles[j]) == 0) {
+                    int[] line = Arrays.copyOf(prefix, depth + 1);
+                    line[depth] = j;
+                    children.add(new SplitTask(shared, position ^ jumpPegs[j] ^ jumpHoles[j],
+                            line));
+                }
+            }
+            boolean solved = false;
+            for (SplitTask child : invokeAll(children)) {
+                solved |= child.join();
+            }
+            if (!solved && shared.solution.get() == null) {
+                shared.table.add(key);
+            }
+            return solved;
+        }
+    }
+}
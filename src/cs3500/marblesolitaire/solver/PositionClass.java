@@ -0,0 +1,104 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+
+/**
+ * The position classes of a board: the invariant behind the "rule of three" of peg
+ * solitaire, for any geometry.
+ * <p>
+ * A jump flips exactly three holes, from, over and to. Read as vectors over GF(2),
+ * two positions can only be connected by a game if they differ by a sum of those
+ * flips, that is, if they are equal modulo the span of the jump vectors. The class of
+ * a position is its remainder after reduction by a basis of that span, so it never
+ * changes during a game. On the English and European boards there are 16 classes,
+ * and a game from a given start can only end with a single marble in a hole of the
+ * start's class, which rules out most holes before any search, and all of them from
+ * the centre-hole start of the European board.
+ */
+final class PositionClass {
+    // basis[b] has its highest set bit at pivot b, and no other basis vector has it set
+    private final long[] basis;
+
+    /**
+     * Computes the classes of a board.
+     *
+     * @param geometry the board geometry, with at most 64 cells
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    PositionClass(BoardGeometry geometry) {
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        long[] byPivot = new long[64];
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            long v = (1L << geometry.jumpFrom(j)) | (1L << geometry.jumpOver(j))
+                    | (1L << geometry.jumpTo(j));
+            // Gaussian elimination, keeping one vector per highest bit
+            while (v != 0) {
+                int pivot = 63 - Long.numberOfLeadingZeros(v);
+                if (byPivot[pivot] == 0) {
+                    byPivot[pivot] = v;
+                    break;
+                }
+                v ^= byPivot[pivot];
+            }
+        }
+        // Clear every pivot bit from the other vectors, from the lowest pivot up, so
+        // that each class has a single reduced form
+        for (int p = 0; p < 64; p++) {
+            if (byPivot[p] != 0) {
+                for (int q = p + 1; q < 64; q++) {
+                    if ((byPivot[q] >>> p & 1) != 0) {
+                        byPivot[q] ^= byPivot[p];
+                    }
+                }
+            }
+        }
+        int count = 0;
+        for (long v : byPivot) {
+            if (v != 0) {
+                count++;
+            }
+        }
+        this.basis = new long[count];
+        for (int p = 63, b = 0; p >= 0; p--) {
+            if (byPivot[p] != 0) {
+                basis[b++] = byPivot[p];
+            }
+        }
+    }
+
+    /**
+     * Returns the class of a position, as the position reduced by the jump vectors.
+     *
+     * @param position the position, one bit per cell
+     * @return a value equal for exactly the positions of the same class
+     */
+    long classOf(long position) {
+        for (long v : basis) {
+            if ((position >>> (63 - Long.numberOfLeadingZeros(v)) & 1) != 0) {
+                position ^= v;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Returns the holes where a game from a position could leave its last marble.
+     *
+     * @param position the position, one bit per cell
+     * @param holes    the holes to consider, one bit per cell
+     * @return the holes of the same class as the position
+     */
+    long singleMarbleHoles(long position, long holes) {
+        long target = classOf(position);
+        long same = 0;
+        for (long bits = holes; bits != 0; bits &= bits - 1) {
+            long hole = Long.lowestOneBit(bits);
+            if (classOf(hole) == target) {
+                same |= hole;
+            }
+        }
+        return same;
+    }
+}
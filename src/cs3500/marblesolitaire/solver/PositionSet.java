@@ -0,0 +1,29 @@
+package cs3500.marblesolitaire.solver;
+
+/**
+ * A set of non-zero board positions, each encoded as one bit per cell in a long.
+ * The solver uses it to remember positions that are already known to be lost.
+ */
+interface PositionSet {
+
+    /**
+     * Checks whether a position has been recorded.
+     *
+     * @param position a non-zero position
+     * @return true if the position is in the set
+     */
+    boolean contains(long position);
+
+    /**
+     * Records a position. Implementations may drop positions when they are full,
+     * since a missing entry only costs the solver repeated work.
+     *
+     * @param position a non-zero position
+     */
+    void add(long position);
+
+    /**
+     * Returns the number of positions recorded.
+     */
+    int size();
+}
@@ -0,0 +1,47 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+/**
+ * Conversions between model states and the 64-bit positions used by the solver
+ * package, which hold one bit per cell of the board geometry.
+ */
+public final class Positions {
+
+    private Positions() {
+    }
+
+    /**
+     * Encodes the marbles of a state as one bit per cell of its geometry.
+     *
+     * @param state the state to read
+     * @return the position
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    public static long of(MarbleSolitaireModelState state) {
+        return of(state, state.getGeometry());
+    }
+
+    /**
+     * Encodes the marbles of a state as one bit per cell of the given geometry.
+     *
+     * @param state    the state to read
+     * @param geometry the geometry of the state
+     * @return the position
+     * @throws IllegalArgumentException if the board has more than 64 cells
+     */
+    public static long of(MarbleSolitaireModelState state, BoardGeometry geometry) {
+        if (geometry.getCellCount() > 64) {
+            throw new IllegalArgumentException("Board too large for 64-bit positions: " + geometry);
+        }
+        long position = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell) && state.getSlotAt(geometry.row(cell), geometry.col(cell))
+                    == MarbleSolitaireModelState.SlotState.Marble) {
+                position |= 1L << cell;
+            }
+        }
+        return position;
+    }
+}
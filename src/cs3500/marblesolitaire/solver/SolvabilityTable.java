@@ -0,0 +1,337 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A complete table of which positions of a board can still finish with a single
+ * marble, stored as one bit per position in a memory-mapped file.
+ * <p>
+ * Positions are numbered by their dense hole index, so a board with h holes needs
+ * 2^h bits: 1 GiB for the 33 holes of the English board. The file starts with a
+ * 16-byte header holding a magic number, the number of holes and the hole mask of
+ * the board, which lets a reader refuse a table built for another board. A lookup
+ * converts the position to its index with a few cached table reads and then reads a
+ * single byte of the mapping, so answering never searches.
+ * <p>
+ * The generator fills the table one marble count at a time, from one marble up. A
+ * move always removes a marble, so a position is solvable exactly when it has one
+ * marble or a move leads to a solvable position of the layer below, which is
+ * complete by then. Each layer is split into tasks by the top bits of the index,
+ * which never share a byte of the file, so the workers of a fork/join pool fill a
+ * layer without any locking.
+ */
+public final class SolvabilityTable {
+    // "PEGS"
+    private static final int MAGIC = 0x50454753;
+    private static final int HEADER_BYTES = 16;
+    // The whole table must fit one mapping, which is limited to 2^31 - 1 bytes
+    private static final int MAX_HOLES = 33;
+    // Index bits below the task split are never fewer than this, so that tasks own
+    // whole bytes of the file
+    private static final int MIN_TASK_BITS = 6;
+    private static final int MAX_SPLIT_BITS = 8;
+
+    private final HoleIndex holes;
+    private final long validMask;
+    private final ByteBuffer bits;
+
+    private SolvabilityTable(HoleIndex holes, ByteBuffer bits) {
+        this.holes = holes;
+        this.validMask = validMask(holes.getGeometry());
+        this.bits = bits;
+    }
+
+    /**
+     * Maps a table file for reading.
+     *
+     * @param file     the file written by generate
+     * @param geometry the board the table was built for
+     * @return the table
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a table of the given board
+     */
+    public static SolvabilityTable open(Path file, BoardGeometry geometry) throws IOException {
+        HoleIndex holes = indexOf(geometry);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = HEADER_BYTES + tableBytes(holes.getHoleCount());
+            if (channel.size() != size) {
+                throw new IllegalArgumentException("Not a solvability table of " + geometry
+                        + ": expected " + size + " bytes but found " + channel.size());
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != holes.getHoleCount()
+                    || map.getLong(8) != validMask(geometry)) {
+                throw new IllegalArgumentException("Not a solvability table of " + geometry);
+            }
+            return new SolvabilityTable(holes, map);
+        }
+    }
+
+    /**
+     * Computes the table of a board and writes it to a file, replacing any existing
+     * file.
+     *
+     * @param geometry the board geometry, with at most 33 holes
+     * @param file     the file to write
+     * @param pool     the pool whose workers fill the table
+     * @return the table, mapped from the new file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the board has too many holes
+     */
+    public static SolvabilityTable generate(BoardGeometry geometry, Path file, ForkJoinPool pool)
+            throws IOException {
+        HoleIndex holes = indexOf(geometry);
+        long size = HEADER_BYTES + tableBytes(holes.getHoleCount());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            new Generator(holes, map).run(pool);
+            map.putInt(0, MAGIC);
+            map.putInt(4, holes.getHoleCount());
+            map.putLong(8, validMask(geometry));
+            map.force();
+        }
+        return open(file, geometry);
+    }
+
+    private static HoleIndex indexOf(BoardGeometry geometry) {
+        HoleIndex holes = new HoleIndex(geometry);
+        if (holes.getHoleCount() > MAX_HOLES) {
+            throw new IllegalArgumentException("Too many holes for a solvability table: "
+                    + geometry + " has " + holes.getHoleCount());
+        }
+        return holes;
+    }
+
+    private static long tableBytes(int holeCount) {
+        return Math.max(1, (1L << holeCount) >>> 3);
+    }
+
+    private static long validMask(BoardGeometry geometry) {
+        long mask = 0;
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (geometry.isValid(cell)) {
+                mask |= 1L << cell;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the board this table was built for.
+     */
+    public BoardGeometry getGeometry() {
+        return holes.getGeometry();
+    }
+
+    /**
+     * Checks whether a position can still finish with a single marble.
+     *
+     * @param position the position, one bit per cell of the geometry as produced by
+     *                 {@link Positions}
+     * @return true if some sequence of moves leaves exactly one marble
+     * @throws IllegalArgumentException if the position has marbles outside the board
+     */
+    public boolean isSolvable(long position) {
+        if ((position & ~validMask) != 0) {
+            throw new IllegalArgumentException("Position has marbles outside the board");
+        }
+        long index = holes.index(position);
+        return (bits.get(HEADER_BYTES + (int) (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    /**
+     * Checks whether the current position of a game can still finish with a single
+     * marble.
+     *
+     * @param state the game to check, on the board of this table
+     * @return true if some sequence of moves leaves exactly one marble
+     * @throws IllegalArgumentException if the game is on a different board
+     */
+    public boolean isSolvable(MarbleSolitaireModelState state) {
+        BoardGeometry geometry = state.getGeometry();
+        if (geometry != holes.getGeometry() && validMask(geometry) != validMask) {
+            throw new IllegalArgumentException("Game is not on the board of this table");
+        }
+        return isSolvable(Positions.of(state, geometry));
+    }
+
+    /**
+     * Fills a mapped table layer by layer. Jumps are translated to masks of hole
+     * indexes, so the generator never converts back to positions.
+     */
+    private static final class Generator {
+        private final int holeCount;
+        private final ByteBuffer map;
+        private final long[] jumpPegs;
+        private final long[] jumpHoles;
+
+        Generator(HoleIndex holes, ByteBuffer map) {
+            BoardGeometry geometry = holes.getGeometry();
+            this.holeCount = holes.getHoleCount();
+            this.map = map;
+            int jumps = geometry.getJumpCount();
+            this.jumpPegs = new long[jumps];
+            this.jumpHoles = new long[jumps];
+            for (int j = 0; j < jumps; j++) {
+                jumpPegs[j] = holes.index((1L << geometry.jumpFrom(j))
+                        | (1L << geometry.jumpOver(j)));
+                jumpHoles[j] = holes.index(1L << geometry.jumpTo(j));
+            }
+        }
+
+        void run(ForkJoinPool pool) {
+            int splitBits = Math.max(0, Math.min(MAX_SPLIT_BITS, holeCount - MIN_TASK_BITS));
+            for (int marbles = 1; marbles <= holeCount; marbles++) {
+                List<LayerTask> tasks = new ArrayList<>();
+                for (int prefix = 0; prefix < 1 << splitBits; prefix++) {
+                    int low = marbles - Integer.bitCount(prefix);
+                    if (low >= 0 && low <= holeCount - splitBits) {
+                        tasks.add(new LayerTask(this, prefix, holeCount - splitBits, low));
+                    }
+                }
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            }
+        }
+
+        boolean get(long index) {
+            return (map.get(HEADER_BYTES + (int) (index >>> 3)) & (1 << (index & 7))) != 0;
+        }
+
+        void set(long index) {
+            int at = HEADER_BYTES + (int) (index >>> 3);
+            map.put(at, (byte) (map.get(at) | (1 << (index & 7))));
+        }
+
+        /**
+         * Decides one position, whose successors are all in the finished layer below.
+         */
+        boolean solvable(long index) {
+            if (Long.bitCount(index) == 1) {
+                return true;
+            }
+            for (int j = 0; j < jumpPegs.length; j++) {
+                if ((index & jumpPegs[j]) == jumpPegs[j] && (index & jumpHoles[j]) == 0
+                        && get(index ^ jumpPegs[j] ^ jumpHoles[j])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Fills the positions of one layer whose index starts with the given top bits,
+     * visiting every choice of the given number of low bits in increasing order.
+     */
+    private static final class LayerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Generator generator;
+        private final long prefix;
+        private final int lowBits;
+        private final int lowMarbles;
+
+        LayerTask(Generator generator, long prefix, int lowBits, int lowMarbles) {
+            this.generator = generator;
+            this.prefix = prefix << lowBits;
+            this.lowBits = lowBits;
+            this.lowMarbles = lowMarbles;
+        }
+
+        @Override
+        protected void compute() {
+            long end = 1L << lowBits;
+            long low = (1L << lowMarbles) - 1;
+            while (low < end) {
+                long index = prefix | low;
+                if (generator.solvable(index)) {
+                    generator.set(index);
+                }
+                if (low == 0) {
+                    break;
+                }
+                // Next larger number with the same number of set bits
+                long smallest = low & -low;
+                long ripple = low + smallest;
+                low = (((ripple ^ low) >>> 2) / smallest) | ripple;
+            }
+        }
+    }
+
+    /**
+     * Generates the table of a board and reports how long it took.
+     * <p>
+     * Command line arguments:
+     * - Output file (required)
+     * - Board type (optional): english or triangular; english by default
+     * - Triangle size (optional): -size N, the number of rows of a triangular board;
+     * 5 by default
+     * - Parallelism (optional): -threads N, the number of fork/join workers; the number of
+     * available processors by default
+     *
+     * @param args command-line arguments
+     * @throws IOException if the table cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int size = 5;
+        String board = "english";
+        Path file = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-size") && i + 1 < args.length) {
+                size = Integer.parseInt(args[++i]);
+            } else if (file == null) {
+                file = Paths.get(args[i]);
+            } else {
+                board = args[i].toLowerCase();
+            }
+        }
+        if (file == null) {
+            System.err.println("Error: Missing output file");
+            return;
+        }
+
+        BoardGeometry geometry;
+        switch (board) {
+            case "english":
+                geometry = new EnglishSolitaireModel().getGeometry();
+                break;
+            case "triangular":
+                geometry = new TriangleSolitaireModel(size).getGeometry();
+                break;
+            default:
+                System.err.println("Error: Unknown board type " + board);
+                return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            generate(geometry, file, pool);
+            System.out.printf("%s table written to %s in %d ms%n", geometry, file,
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times the sequential and parallel solver modes on the default boards and prints
+ * the speedup of the parallel mode. Each mode is run once to warm up before the
+ * timed run.
+ * <p>
+ * Command line arguments:
+ * - Boards (optional): any of english, european and triangular, each optionally
+ * followed by the empty hole as :row,col; by default english, european:3,2 and
+ * triangular. The centre-hole European board is lost by its position class without
+ * any search, so the default times a European start that can be solved.
+ * - Parallelism (optional): -threads N, the number of fork/join workers; the number of
+ * available processors by default
+ */
+public final class SolverBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        StringBuilder boards = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                boards.append(args[i].toLowerCase()).append(' ');
+            }
+        }
+        String selected = boards.length() == 0 ? "english european:3,2 triangular"
+                : boards.toString();
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (String board : selected.trim().split("\\s+")) {
+                MarbleSolitaireModelState state;
+                try {
+                    state = createModel(board);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error: " + e.getMessage());
+                    return;
+                }
+                run(board, state, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Creates the board named by a benchmark argument, such as english or
+     * european:3,2.
+     *
+     * @throws IllegalArgumentException if the board type or empty hole is invalid
+     */
+    private static MarbleSolitaireModelState createModel(String board) {
+        String[] parts = board.split(":", 2);
+        int row = -1;
+        int col = -1;
+        if (parts.length == 2) {
+            String[] hole = parts[1].split(",", 2);
+            try {
+                row = Integer.parseInt(hole[0]);
+                col = Integer.parseInt(hole.length == 2 ? hole[1] : "");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid empty hole " + parts[1]);
+            }
+        }
+        boolean centre = parts.length == 1;
+        switch (parts[0]) {
+            case "english":
+                return centre ? new EnglishSolitaireModel() : new EnglishSolitaireModel(row, col);
+            case "european":
+                return centre ? new EuropeanSolitaireModel() : new EuropeanSolitaireModel(row, col);
+            case "triangular":
+                return centre ? new TriangleSolitaireModel()
+                        : new TriangleSolitaireModel(row, col);
+            default:
+                throw new IllegalArgumentException("Unknown board type " + parts[0]);
+        }
+    }
+
+    private static void run(String board, MarbleSolitaireModelState state, ForkJoinPool pool) {
+        PegSolver solver = new PegSolver(state);
+        solver.solve();
+        SolverResult sequential = solver.solve();
+        solver.solveParallel(1, pool);
+        SolverResult parallel = solver.solveParallel(1, pool);
+        System.out.println(board + " sequential:  " + sequential);
+        System.out.println(board + " parallel(" + pool.getParallelism() + "): " + parallel);
+        System.out.printf("%s speedup: %.2fx%n", board,
+                (double) sequential.getElapsedNanos() / Math.max(1, parallel.getElapsedNanos()));
+    }
+}
@@ -0,0 +1,96 @@
+package cs3500.marblesolitaire.solver;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a solver search: whether the goal can be reached, the moves that
+ * reach it, and how much work the search did.
+ */
+public final class SolverResult {
+    private final boolean solved;
+    private final List<Move> moves;
+    private final long nodes;
+    private final long tableHits;
+    private final long pagodaCuts;
+    private final long endgameCuts;
+    private final int tableSize;
+    private final long elapsedNanos;
+
+    SolverResult(boolean solved, List<Move> moves, long nodes, long tableHits, long pagodaCuts,
+                 long endgameCuts, int tableSize, long elapsedNanos) {
+        this.solved = solved;
+        this.moves = Collections.unmodifiableList(moves);
+        this.nodes = nodes;
+        this.tableHits = tableHits;
+        this.pagodaCuts = pagodaCuts;
+        this.endgameCuts = endgameCuts;
+        this.tableSize = tableSize;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns whether the goal can be reached from the searched position.
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Returns the moves that reach the goal, in playing order, or an empty list if
+     * the position cannot be solved.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of positions the search expanded.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of positions skipped because the transposition table
+     * already knew them to be lost.
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * Returns the number of positions cut because a pagoda function showed that no
+     * goal hole could be reached from them.
+     */
+    public long getPagodaCuts() {
+        return pagodaCuts;
+    }
+
+    /**
+     * Returns the number of positions cut because the endgame tablebase knew them to
+     * be lost.
+     */
+    public long getEndgameCuts() {
+        return endgameCuts;
+    }
+
+    /**
+     * Returns the number of lost positions recorded in the transposition table.
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (solved ? "Solved in " + moves.size() + " moves" : "No solution")
+                + " (" + nodes + " nodes, " + tableHits + " table hits, "
+                + pagodaCuts + " pagoda cuts, " + endgameCuts + " endgame cuts, "
+                + tableSize + " positions stored, " + elapsedNanos / 1_000_000 + " ms)";
+    }
+}
@@ -0,0 +1,590 @@
+package cs3500.marblesolitaire.solver;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Endgame tablebase: for every position of a board with at most k marbles, whether
+ * it can still finish with a single marble.
+ * <p>
+ * Each marble count m has its own file holding one bit per position. The positions
+ * with m marbles are numbered by the combinatorial number system: if the marbles sit
+ * in holes c1 &lt; c2 &lt; ... &lt; cm, the rank is C(c1, 1) + C(c2, 2) + ... +
+ * C(cm, m), which numbers the C(h, m) positions of a board with h holes densely from
+ * 0. A lookup adds m binomial coefficients from a cached table and reads one bit, with
+ * no hashing and no wasted space. Holes are numbered in cell order, and the tablebase
+ * works on boards of any size: positions are read from the model, or from a 64-bit
+ * solver position on boards of at most 64 cells.
+ * <p>
+ * The tables are built by retrograde analysis from the end of the game: every
+ * single-marble position is solved, and each larger marble count is decided from the
+ * finished count below it, since a move always removes exactly one marble. A layer is
+ * split into fork/join tasks over ranges of ranks that own whole words of the
+ * bitmap.
+ * <p>
+ * An opened tablebase loads the file of a marble count the first time a position
+ * with that many marbles is looked up, so a search that never goes deep enough never
+ * reads the larger files.
+ */
+public final class Tablebase {
+    // "PEGE"
+    private static final int MAGIC = 0x50454745;
+    private static final int HEADER_BYTES = 24;
+    // Each layer is held in one long array
+    private static final long MAX_LAYER_POSITIONS = (long) Integer.MAX_VALUE * 64;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    // Ranks per generator task are a multiple of this, so tasks own whole words
+    private static final int RANKS_PER_WORD = 64;
+
+    private final BoardGeometry geometry;
+    private final Path directory;
+    private final int maxMarbles;
+    private final int holeCount;
+    // Hole number of each cell, or -1 for cells that are not holes
+    private final int[] holeOf;
+    // Cell of each hole number
+    private final int[] cellOf;
+    // Jumps starting from each hole: over and landing holes of
+    // jumpOver/jumpTo[jumpStart[hole] .. jumpStart[hole + 1] - 1]
+    private final int[] jumpStart;
+    private final int[] jumpOver;
+    private final int[] jumpTo;
+    // binomial[n][k] = C(n, k) for n up to the hole count and k up to maxMarbles
+    private final long[][] binomial;
+    private final long fingerprint;
+    private final AtomicReferenceArray<long[]> layers;
+
+    private Tablebase(BoardGeometry geometry, Path directory, int maxMarbles) {
+        if (maxMarbles < 1) {
+            throw new IllegalArgumentException("Tablebase must cover at least one marble");
+        }
+        this.geometry = geometry;
+        this.directory = directory;
+        this.maxMarbles = maxMarbles;
+        this.holeOf = new int[geometry.getCellCount()];
+        this.cellOf = new int[geometry.getCellCount()];
+        int holes = 0;
+        long print = geometry.getBoardSize();
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            holeOf[cell] = -1;
+            if (geometry.isValid(cell)) {
+                cellOf[holes] = cell;
+                holeOf[cell] = holes++;
+                print = print * 31 + cell;
+            }
+        }
+        this.holeCount = holes;
+        this.jumpStart = new int[holeCount + 1];
+        this.jumpOver = new int[geometry.getJumpCount()];
+        this.jumpTo = new int[geometry.getJumpCount()];
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            jumpStart[holeOf[geometry.jumpFrom(j)] + 1]++;
+        }
+        for (int hole = 0; hole < holeCount; hole++) {
+            jumpStart[hole + 1] += jumpStart[hole];
+        }
+        int[] next = jumpStart.clone();
+        for (int j = 0; j < geometry.getJumpCount(); j++) {
+            int at = next[holeOf[geometry.jumpFrom(j)]]++;
+            jumpOver[at] = holeOf[geometry.jumpOver(j)];
+            jumpTo[at] = holeOf[geometry.jumpTo(j)];
+        }
+        this.fingerprint = TranspositionTable.mix(print);
+        if (maxMarbles > holeCount) {
+            throw new IllegalArgumentException("Tablebase cannot cover more marbles than the "
+                    + holeCount + " holes of " + geometry);
+        }
+        // Coefficients saturate instead of overflowing; any layer that large is rejected
+        this.binomial = new long[holeCount + 1][maxMarbles + 1];
+        for (int n = 0; n <= holeCount; n++) {
+            binomial[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, maxMarbles); k++) {
+                binomial[n][k] = Math.min(MAX_LAYER_POSITIONS + 1,
+                        binomial[n - 1][k - 1] + (k <= n - 1 ? binomial[n - 1][k] : 0));
+            }
+        }
+        for (int m = 1; m <= maxMarbles; m++) {
+            if (binomial[holeCount][m] > MAX_LAYER_POSITIONS) {
+                throw new IllegalArgumentException("Too many positions with " + m
+                        + " marbles on " + geometry);
+            }
+        }
+        this.layers = new AtomicReferenceArray<>(maxMarbles + 1);
+    }
+
+    /**
+     * Opens the tablebase of a board. Files are only read when first needed.
+     *
+     * @param directory  the directory written by generate
+     * @param geometry   the board the tablebase was built for
+     * @param maxMarbles the largest marble count to use, at most the count generated
+     * @return the tablebase
+     * @throws IOException              if a file is missing or cannot be read
+     * @throws IllegalArgumentException if the files are not a tablebase of the board
+     */
+    public static Tablebase open(Path directory, BoardGeometry geometry, int maxMarbles)
+            throws IOException {
+        Tablebase tablebase = new Tablebase(geometry, directory, maxMarbles);
+        for (int m = 1; m <= maxMarbles; m++) {
+            if (!Files.isRegularFile(tablebase.file(m))) {
+                throw new IOException("Missing tablebase file " + tablebase.file(m));
+            }
+        }
+        return tablebase;
+    }
+
+    /**
+     * Builds the tablebase of a board for every marble count up to the given one and
+     * writes one file per count to a directory, replacing existing files.
+     *
+     * @param geometry   the board geometry
+     * @param maxMarbles the largest marble count to cover
+     * @param directory  the directory to write, created if needed
+     * @param pool       the pool whose workers build the tables
+     * @return the tablebase, reading the new files
+     * @throws IOException              if the files cannot be written
+     * @throws IllegalArgumentException if the marble count is not positive or the
+     *                                  largest table would be too large
+     */
+    public static Tablebase generate(BoardGeometry geometry, int maxMarbles, Path directory,
+                                     ForkJoinPool pool) throws IOException {
+        Tablebase tablebase = new Tablebase(geometry, directory, maxMarbles);
+        Files.createDirectories(directory);
+        long[] below = null;
+        for (int m = 1; m <= maxMarbles; m++) {
+            long[] layer = tablebase.build(m, below, pool);
+            tablebase.write(m, layer);
+            below = layer;
+        }
+        return tablebase;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Returns the largest marble count covered by this tablebase.
+     */
+    public int getMaxMarbles() {
+        return maxMarbles;
+    }
+
+    /**
+     * Returns the number of positions with the given number of marbles.
+     *
+     * @param marbles the marble count, between 0 and getMaxMarbles()
+     * @return the number of positions
+     */
+    public long getPositionCount(int marbles) {
+        return binomial[holeCount][marbles];
+    }
+
+    /**
+     * Checks whether a position can still finish with a single marble.
+     *
+     * @param position the position, one bit per cell of the geometry as produced by
+     *                 {@link Positions}
+     * @return true if some sequence of moves leaves exactly one marble
+     * @throws IllegalArgumentException if the position has more marbles than the
+     *                                  tablebase covers or marbles outside the board
+     * @throws IllegalStateException    if a file of the tablebase cannot be read
+     */
+    public boolean isSolvable(long position) {
+        int marbles = Long.bitCount(position);
+        checkMarbles(marbles);
+        long rank = 0;
+        for (int i = 1; position != 0; i++, position &= position - 1) {
+            int cell = Long.numberOfTrailingZeros(position);
+            if (cell >= holeOf.length || holeOf[cell] < 0) {
+                throw new IllegalArgumentException("Position has marbles outside the board");
+            }
+            rank += binomial[holeOf[cell]][i];
+        }
+        return marbles > 0 && isSet(layer(marbles), rank);
+    }
+
+    /**
+     * Checks whether the current position of a game can still finish with a single
+     * marble.
+     *
+     * @param state the game to check, on the board of this tablebase
+     * @return true if some sequence of moves leaves exactly one marble
+     * @throws IllegalArgumentException if the game is on a different board or has more
+     *                                  marbles than the tablebase covers
+     * @throws IllegalStateException    if a file of the tablebase cannot be read
+     */
+    public boolean isSolvable(MarbleSolitaireModelState state) {
+        if (!hasSameHoles(state.getGeometry())) {
+            throw new IllegalArgumentException("Game is not on the board of this tablebase");
+        }
+        int marbles = state.getScore();
+        checkMarbles(marbles);
+        long rank = 0;
+        int found = 0;
+        for (int hole = 0; hole < holeCount; hole++) {
+            int cell = cellOf[hole];
+            MarbleSolitaireModelState.SlotState slot =
+                    state.getSlotAt(geometry.row(cell), geometry.col(cell));
+            if (slot == MarbleSolitaireModelState.SlotState.Invalid) {
+                throw new IllegalArgumentException("Game is not on the board of this tablebase");
+            }
+            if (slot == MarbleSolitaireModelState.SlotState.Marble) {
+                rank += binomial[hole][++found];
+            }
+        }
+        if (found != marbles) {
+            throw new IllegalArgumentException("Game is not on the board of this tablebase");
+        }
+        return marbles > 0 && isSet(layer(marbles), rank);
+    }
+
+    /**
+     * Checks whether a geometry has exactly the holes of this tablebase's board; a
+     * board of the same size may have other holes, such as the corners of the
+     * European board.
+     */
+    private boolean hasSameHoles(BoardGeometry other) {
+        if (other == geometry) {
+            return true;
+        }
+        if (other.isTriangular() != geometry.isTriangular()
+                || other.getCellCount() != geometry.getCellCount()) {
+            return false;
+        }
+        for (int cell = 0; cell < geometry.getCellCount(); cell++) {
+            if (other.isValid(cell) != geometry.isValid(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkMarbles(int marbles) {
+        if (marbles > maxMarbles) {
+            throw new IllegalArgumentException("Tablebase only covers up to " + maxMarbles
+                    + " marbles, position has " + marbles);
+        }
+    }
+
+    private static boolean isSet(long[] bits, long rank) {
+        return (bits[(int) (rank >>> 6)] & (1L << rank)) != 0;
+    }
+
+    private Path file(int marbles) {
+        return directory.resolve("marbles-" + marbles + ".bin");
+    }
+
+    /**
+     * Returns the table of a marble count, reading its file on first use.
+     */
+    private long[] layer(int marbles) {
+        long[] bits = layers.get(marbles);
+        if (bits == null) {
+            synchronized (this) {
+                bits = layers.get(marbles);
+                if (bits == null) {
+                    try {
+                        bits = read(marbles);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot read tablebase file "
+                                + file(marbles), e);
+                    }
+                    layers.set(marbles, bits);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private long[] read(int marbles) throws IOException {
+        long[] bits = new long[words(marbles)];
+        try (FileChannel channel = FileChannel.open(file(marbles), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() != HEADER_BYTES || header.getInt() != MAGIC
+                    || header.getInt() != holeCount || header.getInt() != marbles
+                    || header.getInt() != geometry.getBoardSize()
+                    || header.getLong() != fingerprint
+                    || channel.size() != HEADER_BYTES + 8L * bits.length) {
+                throw new IllegalArgumentException("Not a tablebase of " + geometry
+                        + " with " + marbles + " marbles: " + file(marbles));
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+            int word = 0;
+            while (word < bits.length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), 8L * (bits.length - word)));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Tablebase file ends early: " + file(marbles));
+                    }
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    bits[word++] = buffer.getLong();
+                }
+            }
+        }
+        return bits;
+    }
+
+    private void write(int marbles, long[] bits) throws IOException {
+        try (FileChannel channel = FileChannel.open(file(marbles), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+            buffer.putInt(MAGIC).putInt(holeCount).putInt(marbles).putInt(geometry.getBoardSize())
+                    .putLong(fingerprint);
+            for (long word : bits) {
+                if (!buffer.hasRemaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(word);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private int words(int marbles) {
+        return (int) ((binomial[holeCount][marbles] + RANKS_PER_WORD - 1) / RANKS_PER_WORD);
+    }
+
+    /**
+     * Decides every position with the given number of marbles from the finished table
+     * of one marble fewer.
+     */
+    private long[] build(int marbles, long[] below, ForkJoinPool pool) {
+        long[] bits = new long[words(marbles)];
+        long positions = binomial[holeCount][marbles];
+        long chunk = Math.max(RANKS_PER_WORD,
+                positions / (8L * pool.getParallelism()) / RANKS_PER_WORD * RANKS_PER_WORD);
+        List<LayerTask> tasks = new ArrayList<>();
+        for (long from = 0; from < positions; from += chunk) {
+            tasks.add(new LayerTask(this, marbles, below, bits, from,
+                    Math.min(positions, from + chunk)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        return bits;
+    }
+
+    /**
+     * Decides the positions of one layer with ranks in a range, stepping through
+     * their marble holes in rank order.
+     */
+    private static final class LayerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int holeCount;
+        private final int[] jumpStart;
+        private final int[] jumpOver;
+        private final int[] jumpTo;
+        private final long[][] binomial;
+        private final int marbles;
+        private final long[] below;
+        private final long[] bits;
+        private final long from;
+        private final long to;
+
+        LayerTask(Tablebase table, int marbles, long[] below, long[] bits, long from, long to) {
+            this.holeCount = table.holeCount;
+            this.jumpStart = table.jumpStart;
+            this.jumpOver = table.jumpOver;
+            this.jumpTo = table.jumpTo;
+            this.binomial = table.binomial;
+            this.marbles = marbles;
+            this.below = below;
+            this.bits = bits;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int[] holes = unrank(from);
+            boolean[] occupied = new boolean[holeCount];
+            int[] next = new int[marbles - 1];
+            for (long rank = from; rank < to; rank++) {
+                for (int hole : holes) {
+                    occupied[hole] = true;
+                }
+                if (marbles == 1 || anyMoveSolvable(holes, occupied, next)) {
+                    bits[(int) (rank >>> 6)] |= 1L << rank;
+                }
+                for (int hole : holes) {
+                    occupied[hole] = false;
+                }
+                advance(holes);
+            }
+        }
+
+        private boolean anyMoveSolvable(int[] holes, boolean[] occupied, int[] next) {
+            for (int hole : holes) {
+                for (int j = jumpStart[hole]; j < jumpStart[hole + 1]; j++) {
+                    if (occupied[jumpOver[j]] && !occupied[jumpTo[j]]
+                            && isSet(below, rankAfter(holes, hole, jumpOver[j], jumpTo[j], next))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the rank of the position reached by moving the marble of one hole
+         * over another into an empty hole.
+         */
+        private long rankAfter(int[] holes, int jumper, int over, int land, int[] next) {
+            int n = 0;
+            boolean placed = false;
+            for (int hole : holes) {
+                if (!placed && land < hole) {
+                    next[n++] = land;
+                    placed = true;
+                }
+                if (hole != jumper && hole != over) {
+                    next[n++] = hole;
+                }
+            }
+            if (!placed) {
+                next[n] = land;
+            }
+            long rank = 0;
+            for (int i = 0; i < next.length; i++) {
+                rank += binomial[next[i]][i + 1];
+            }
+            return rank;
+        }
+
+        /**
+         * Returns the holes of the position with the given rank, in increasing order.
+         */
+        private int[] unrank(long rank) {
+            int[] holes = new int[marbles];
+            int candidate = holeCount - 1;
+            for (int i = marbles; i >= 1; i--) {
+                while (binomial[candidate][i] > rank) {
+                    candidate--;
+                }
+                holes[i - 1] = candidate;
+                rank -= binomial[candidate][i];
+                candidate--;
+            }
+            return holes;
+        }
+
+        /**
+         * Steps to the holes of the next rank: the lowest marble that can move up
+         * does so, and the marbles below it return to the lowest holes.
+         */
+        private void advance(int[] holes) {
+            for (int i = 0; i < holes.length; i++) {
+                int limit = i + 1 < holes.length ? holes[i + 1] : holeCount;
+                if (holes[i] + 1 < limit) {
+                    holes[i]++;
+                    for (int j = 0; j < i; j++) {
+                        holes[j] = j;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the tablebase of a board and reports how long each marble count took.
+     * <p>
+     * Command line arguments:
+     * - Output directory (required)
+     * - Board type (optional): english, european or triangular; english by default
+     * - Marble count (optional): -marbles K, the largest marble count to cover; 8 by
+     * default
+     * - Board size (optional): -size N, the arm thickness of the English and European
+     * boards or the number of rows of the triangle; the standard size by default
+     * - Parallelism (optional): -threads N, the number of fork/join workers; the number of
+     * available processors by default
+     *
+     * @param args command-line arguments
+     * @throws IOException if the files cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int marbles = 8;
+        int size = -1;
+        String board = "english";
+        Path directory = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-marbles") && i + 1 < args.length) {
+                marbles = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-size") && i + 1 < args.length) {
+                size = Integer.parseInt(args[++i]);
+            } else if (directory == null) {
+                directory = Paths.get(args[i]);
+            } else {
+                board = args[i].toLowerCase();
+            }
+        }
+        if (directory == null) {
+            System.err.println("Error: Missing output directory");
+            return;
+        }
+
+        MarbleSolitaireModelState state;
+        switch (board) {
+            case "english":
+                state = size > 0 ? new EnglishSolitaireModel(size) : new EnglishSolitaireModel();
+                break;
+            case "european":
+                state = size > 0 ? new EuropeanSolitaireModel(size) : new EuropeanSolitaireModel();
+                break;
+            case "triangular":
+                state = size > 0 ? new TriangleSolitaireModel(size) : new TriangleSolitaireModel();
+                break;
+            default:
+                System.err.println("Error: Unknown board type " + board);
+                return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            Tablebase tablebase = generate(state.getGeometry(), marbles, directory, pool);
+            for (int m = 1; m <= marbles; m++) {
+                System.out.println(m + " marbles: " + tablebase.getPositionCount(m) + " positions");
+            }
+            System.out.printf("%s tablebase written to %s in %d ms%n", state.getGeometry(),
+                    directory, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
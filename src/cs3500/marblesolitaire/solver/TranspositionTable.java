@@ -0,0 +1,142 @@
+package cs3500.marblesolitaire.solver;
+
+/**
+ * Hash set of board positions, each encoded as one bit per cell in a long.
+ * <p>
+ * Positions are stored in a flat long array with open addressing and linear probing,
+ * so a lookup touches one or two cache lines and allocates nothing. The value 0 marks
+ * a free slot, which is safe because the solver only records positions that still
+ * hold marbles. A position is only looked for within a few slots of its hash.
+ * <p>
+ * The table doubles when it is half full, or when those slots are all taken, up to a
+ * maximum number of slots. From then on it keeps its size and replaces entries
+ * instead: a new position takes the slot of the position with the fewest marbles
+ * among the slots it probed, if that has fewer marbles than the new one. A position
+ * with more marbles is higher in the game tree, so its refutation saved more work
+ * and is worth keeping longer. Dropping positions is safe, since the solver only
+ * uses the table to avoid re-refuting lost positions.
+ */
+final class TranspositionTable implements PositionSet {
+    /**
+     * The default maximum number of slots (2^23 slots use 64 MB).
+     */
+    static final int DEFAULT_MAX_CAPACITY = 1 << 23;
+    private static final int MAX_PROBES = 16;
+
+    private final int maxCapacity;
+    private long[] slots;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a table with room for at least the given number of positions before it
+     * first grows, which grows up to the default maximum.
+     *
+     * @param expected the expected number of positions
+     */
+    TranspositionTable(int expected) {
+        this(expected, DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Creates a table with room for at least the given number of positions before it
+     * first grows, which grows up to the given number of slots.
+     *
+     * @param expected    the expected number of positions
+     * @param maxCapacity the maximum number of slots, rounded up to a power of two of
+     *                    at most 2^30
+     */
+    TranspositionTable(int expected, int maxCapacity) {
+        this.maxCapacity = roundUp(Math.min(maxCapacity, 1 << 30));
+        int capacity = Math.min(roundUp(Math.min(expected, 1 << 29) * 2), this.maxCapacity);
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    private static int roundUp(int capacity) {
+        return Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+    }
+
+    @Override
+    public boolean contains(long position) {
+        int i = index(position);
+        for (int probe = 0; probe < MAX_PROBES; probe++, i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == position) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void add(long position) {
+        int i = index(position);
+        int victim = i;
+        for (int probe = 0; probe < MAX_PROBES; probe++, i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == position) {
+                return;
+            }
+            if (slot == 0) {
+                slots[i] = position;
+                size++;
+                if (size * 2 > slots.length && slots.length < maxCapacity) {
+                    grow();
+                }
+                return;
+            }
+            if (Long.bitCount(slot) < Long.bitCount(slots[victim])) {
+                victim = i;
+            }
+        }
+        // Every probed slot is taken
+        if (slots.length < maxCapacity) {
+            grow();
+            add(position);
+        } else if (Long.bitCount(slots[victim]) < Long.bitCount(position)) {
+            slots[victim] = position;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots, which never exceeds the maximum given on creation.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        mask = slots.length - 1;
+        size = 0;
+        for (long slot : old) {
+            if (slot != 0) {
+                add(slot);
+            }
+        }
+    }
+
+    private int index(long position) {
+        return (int) mix(position) & mask;
+    }
+
+    /**
+     * Spreads the bits of a position so that neighbouring positions land in
+     * different slots (the SplitMix64 finaliser).
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,143 @@
+package cs3500.marblesolitaire.view;
+
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * The parts shared by the text views of every board shape: rendering the board row
+ * by row into the destination, keeping a RowCache in the caching render modes, and
+ * passing the controller's prompts and end of output on to an OutputSink.
+ * <p>
+ * A subclass only decides how one row of its board is formatted.
+ */
+public abstract class AbstractTextView implements MarbleSolitaireView {
+    protected final MarbleSolitaireModelState model;
+    private final Appendable appendable;
+    private final StringBuilder rowBuffer = new StringBuilder();
+    private final RowWriter rowWriter = new RowWriter();
+    // Rows kept between renders, or null in RenderMode.FULL
+    private final RowCache cache;
+
+    /**
+     * Creates a view; the subclass has already checked the arguments.
+     *
+     * @param model      the model to render
+     * @param appendable the destination for output
+     * @param mode       how renderBoard writes the board
+     */
+    protected AbstractTextView(MarbleSolitaireModelState model, Appendable appendable,
+                               RenderMode mode) {
+        this.model = model;
+        this.appendable = appendable;
+        this.cache = mode == RenderMode.FULL ? null : new RowCache(model, this::appendRow, mode);
+    }
+
+    /**
+     * Appends one row in the format of toString, without a line break.
+     *
+     * @param row the row to format
+     * @param out the buffer to append it to
+     */
+    protected abstract void appendRow(int row, StringBuilder out);
+
+    /**
+     * Return a string with one line per row of the board, each formatted by appendRow.
+     *
+     * @return the game state as a string
+     */
+    @Override
+    public String toString() {
+        int boardSize = model.getBoardSize();
+        StringBuilder sb = new StringBuilder(2 * boardSize * boardSize);
+        try {
+            render(sb);
+        } catch (IOException e) {
+            // A StringBuilder never throws
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Render the board to the provided data destination, in the format of toString.
+     *
+     * @throws IOException if transmission of the board to the provided data destination fails
+     */
+    @Override
+    public void renderBoard() throws IOException {
+        if (cache != null) {
+            cache.render(appendable);
+        } else {
+            render(appendable);
+        }
+    }
+
+    @Override
+    public void moveMade(int fromRow, int fromCol, int toRow, int toCol) {
+        if (cache != null) {
+            cache.moved(fromRow, fromCol, toRow, toCol);
+        }
+    }
+
+    /**
+     * Writes the output held by an OutputSink destination whose policy is to flush
+     * before every prompt.
+     *
+     * @throws IOException if transmission of the output fails
+     */
+    @Override
+    public void awaitingInput() throws IOException {
+        if (appendable instanceof OutputSink) {
+            ((OutputSink) appendable).prompt();
+        }
+    }
+
+    /**
+     * Flushes the destination if it is Flushable, which writes all the output held by
+     * an OutputSink.
+     *
+     * @throws IOException if transmission of the output fails
+     */
+    @Override
+    public void endOfOutput() throws IOException {
+        if (appendable instanceof Flushable) {
+            ((Flushable) appendable).flush();
+        }
+    }
+
+    /**
+     * Render a specific message to the provided data destination.
+     *
+     * @param message the message to be transmitted
+     * @throws IOException if transmission of the message to the provided data destination fails
+     */
+    @Override
+    public void renderMessage(String message) throws IOException {
+        appendable.append(message);
+    }
+
+    /**
+     * Writes the board row by row into a destination, in the format of toString. Each
+     * row is built in one reused buffer and written as it is finished, so the whole
+     * board is never held in memory, and no row is copied into a String on the way.
+     *
+     * @param out the destination
+     * @throws IOException if the destination fails
+     */
+    private void render(Appendable out) throws IOException {
+        int boardSize = model.getBoardSize();
+
+        for (int row = 0; row < boardSize; row++) {
+            rowBuffer.setLength(0);
+            appendRow(row, rowBuffer);
+            rowWriter.write(out, rowBuffer);
+
+            // Add newline after each row except the last
+            if (row < boardSize - 1) {
+                out.append('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package cs3500.marblesolitaire.view;
+
+/**
+ * When an OutputSink passes its buffered output on to its destination.
+ */
+public enum FlushPolicy {
+    /**
+     * Whenever the controller is about to wait for input, so that the player sees
+     * everything written before being asked for more, and whenever the buffer fills.
+     */
+    EACH_PROMPT,
+    /**
+     * Only whenever the buffer fills, and at the end of the game.
+     */
+    WHEN_FULL,
+    /**
+     * Only at the end of the game; the buffer grows to hold all the output until then.
+     */
+    GAME_END
+}
@@ -2,11 +2,7 @@ package cs3500.marblesolitaire.view;
 
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
 
-import java.io.IOException;
-
-public class MarbleSolitaireTextView implements MarbleSolitaireView {
-    private final MarbleSolitaireModelState model;
-    private final Appendable appendable;
+public class MarbleSolitaireTextView extends AbstractTextView {
 
     /**
      * Constructor that takes a MarbleSolitaireModelState to view
@@ -15,11 +11,7 @@ public class MarbleSolitaireTextView implements MarbleSolitaireView {
      * @throws IllegalArgumentException if the model is null
      */
     public MarbleSolitaireTextView(MarbleSolitaireModelState model) {
-        if (model == null) {
-            throw new IllegalArgumentException("Model cannot be null");
-        }
-        this.model = model;
-        this.appendable = System.out;
+        super(requireModel(model), System.out, RenderMode.FULL);
     }
 
     /**
@@ -30,85 +22,76 @@ public class MarbleSolitaireTextView implements MarbleSolitaireView {
      * @throws IllegalArgumentException if either the model or appendable is null
      */
     public MarbleSolitaireTextView(MarbleSolitaireModelState model, Appendable appendable) {
-        if (model == null || appendable == null) {
-            throw new IllegalArgumentException("Model and appendable object cannot be null");
-        }
-        this.model = model;
-        this.appendable = appendable;
+        this(model, appendable, RenderMode.FULL);
     }
 
     /**
-     * Return a string that represents the current state of the board. The
-     * string should have one line per row of the game board. Each slot on the
-     * game board is a single character (O, _ or space for a marble, empty and
-     * invalid position respectively). Slots in a row should be separated by a
-     * space. Each row has no space before the first slot and after the last slot.
+     * Constructor that takes a model, an appendable destination and how to render the
+     * board to it.
      *
-     * @return the game state as a string
+     * @param model the model to render
+     * @param appendable the destination for output
+     * @param mode how renderBoard writes the board
+     * @throws IllegalArgumentException if any argument is null
      */
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        int boardSize = model.getBoardSize();
-
-        for (int row = 0; row < boardSize; row++) {
-            StringBuilder rowBuilder = new StringBuilder();
-
-            for (int col = 0; col < boardSize; col++) {
-                MarbleSolitaireModelState.SlotState slot = model.getSlotAt(row, col);
-
-                switch (slot) {
-                    case Marble:
-                        rowBuilder.append("O");
-                        break;
-                    case Empty:
-                        rowBuilder.append("_");
-                        break;
-                    case Invalid:
-                        rowBuilder.append(" ");
-                        break;
-                }
-
-                // Add space after each slot except the last
-                if (col < boardSize - 1) {
-                    rowBuilder.append(" ");
-                }
-            }
-
-            // Remove trailing spaces from the row
-            String rowString = rowBuilder.toString().replaceAll("\\s+$", "");
-
-            // Add the row to the result
-            sb.append(rowString);
+    public MarbleSolitaireTextView(MarbleSolitaireModelState model, Appendable appendable,
+                                   RenderMode mode) {
+        super(requireArguments(model, appendable, mode), appendable, mode);
+    }
 
-            // Add newline after each row except the last
-            if (row < boardSize - 1) {
-                sb.append("\n");
-            }
+    private static MarbleSolitaireModelState requireModel(MarbleSolitaireModelState model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Model cannot be null");
         }
-
-        return sb.toString();
+        return model;
     }
 
-    /**
-     * Render the board to the provided data destination. The board should be rendered exactly
-     * in the format produced by the toString method above
-     *
-     * @throws IOException if transmission of the board to the provided data destination fails
-     */
-    @Override
-    public void renderBoard() throws IOException {
-        appendable.append(this.toString());
+    private static MarbleSolitaireModelState requireArguments(MarbleSolitaireModelState model,
+                                                              Appendable appendable,
+                                                              RenderMode mode) {
+        if (model == null || appendable == null) {
+            throw new IllegalArgumentException("Model and appendable object cannot be null");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Render mode cannot be null");
+        }
+        return model;
     }
 
     /**
-     * Render a specific message to the provided data destination.
+     * Appends one row of the board, without a line break. Each slot on the game board
+     * is a single character (O, _ or space for a marble, empty and invalid position
+     * respectively), and slots are separated by a space. The row ends at its last valid
+     * slot: the invalid slots after it would only be trailing spaces, so they are
+     * neither read nor written.
      *
-     * @param message the message to be transmitted
-     * @throws IOException if transmission of the board to the provided data destination fails
+     * @param row the row to format
+     * @param out the buffer to append it to
      */
     @Override
-    public void renderMessage(String message) throws IOException {
-        appendable.append(message);
+    protected void appendRow(int row, StringBuilder out) {
+        int last = model.getBoardSize() - 1;
+        while (last >= 0 && model.getSlotAt(row, last) == MarbleSolitaireModelState.SlotState.Invalid) {
+            last--;
+        }
+
+        for (int col = 0; col <= last; col++) {
+            // Add space before each slot except the first
+            if (col > 0) {
+                out.append(' ');
+            }
+
+            switch (model.getSlotAt(row, col)) {
+                case Marble:
+                    out.append('O');
+                    break;
+                case Empty:
+                    out.append('_');
+                    break;
+                case Invalid:
+                    out.append(' ');
+                    break;
+            }
+        }
     }
 }
\ No newline at end of file
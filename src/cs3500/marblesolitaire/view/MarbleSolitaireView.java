@@ -33,4 +33,36 @@ public interface MarbleSolitaireView {
    * @throws IOException if transmission of the board to the provided data destination fails
    */
   void renderMessage(String message) throws IOException;
+
+  /**
+   * Tell the view that a move was just made on its model, so that a view that keeps
+   * the rendered board can update only the rows the move touched. The default does
+   * nothing.
+   *
+   * @param fromRow the row of the marble that moved, starting at 0
+   * @param fromCol the column of the marble that moved, starting at 0
+   * @param toRow the row it moved to, starting at 0
+   * @param toCol the column it moved to, starting at 0
+   */
+  default void moveMade(int fromRow, int fromCol, int toRow, int toCol) {
+  }
+
+  /**
+   * Tell the view that the controller is about to wait for input, so that a view that
+   * buffers its output can write what the player must see before answering. The
+   * default does nothing.
+   *
+   * @throws IOException if transmission of buffered output fails
+   */
+  default void awaitingInput() throws IOException {
+  }
+
+  /**
+   * Tell the view that the game has ended and no more output follows, so that a view
+   * that buffers its output can write all of it. The default does nothing.
+   *
+   * @throws IOException if transmission of buffered output fails
+   */
+  default void endOfOutput() throws IOException {
+  }
 }
@@ -0,0 +1,131 @@
+package cs3500.marblesolitaire.view;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * A buffer in front of the destination of a view, which collects the many small
+ * pieces of output of a game (rows, line breaks, scores, prompts) and passes them on
+ * in large blocks.
+ * <p>
+ * A destination such as System.out may make a system call for every append. Writing
+ * through a sink instead, a turn of the game reaches the destination as one append,
+ * followed by a flush if the destination is Flushable. When that happens is set by the
+ * FlushPolicy: before the controller waits for input, whenever the buffer holds the
+ * given number of characters, or only when the game ends. flush always empties the
+ * buffer.
+ * <p>
+ * Nothing reaches the destination until the sink is flushed, so an IOException from
+ * the destination is thrown by the append or flush that empties the buffer.
+ */
+public final class OutputSink implements Appendable, Flushable {
+    /**
+     * The default number of characters buffered before they are passed on.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final Appendable destination;
+    private final FlushPolicy policy;
+    private final int capacity;
+    private final StringBuilder buffer;
+
+    /**
+     * Creates a sink with the default capacity.
+     *
+     * @param destination where the output goes
+     * @param policy      when the output is passed on
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public OutputSink(Appendable destination, FlushPolicy policy) {
+        this(destination, policy, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a sink.
+     *
+     * @param destination where the output goes
+     * @param policy      when the output is passed on
+     * @param capacity    the number of characters that fill the buffer; ignored by
+     *                    FlushPolicy.GAME_END
+     * @throws IllegalArgumentException if an argument is null or the capacity is not
+     *                                  positive
+     */
+    public OutputSink(Appendable destination, FlushPolicy policy, int capacity) {
+        if (destination == null || policy == null) {
+            throw new IllegalArgumentException("Destination and flush policy cannot be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.destination = destination;
+        this.policy = policy;
+        this.capacity = capacity;
+        this.buffer = new StringBuilder(policy == FlushPolicy.GAME_END ? DEFAULT_CAPACITY : capacity);
+    }
+
+    @Override
+    public OutputSink append(CharSequence csq) throws IOException {
+        buffer.append(csq);
+        flushIfFull();
+        return this;
+    }
+
+    @Override
+    public OutputSink append(CharSequence csq, int start, int end) throws IOException {
+        buffer.append(csq, start, end);
+        flushIfFull();
+        return this;
+    }
+
+    @Override
+    public OutputSink append(char c) throws IOException {
+        buffer.append(c);
+        flushIfFull();
+        return this;
+    }
+
+    /**
+     * Marks the point where the controller is about to wait for input, which passes
+     * the output on under FlushPolicy.EACH_PROMPT.
+     *
+     * @throws IOException if the destination fails
+     */
+    public void prompt() throws IOException {
+        if (policy == FlushPolicy.EACH_PROMPT) {
+            flush();
+        }
+    }
+
+    /**
+     * Passes all buffered output on to the destination, and flushes the destination
+     * if it is Flushable.
+     *
+     * @throws IOException if the destination fails
+     */
+    @Override
+    public void flush() throws IOException {
+        if (buffer.length() > 0) {
+            // Empty the buffer first, so that a failing destination is not sent the
+            // same output again
+            String output = buffer.toString();
+            buffer.setLength(0);
+            destination.append(output);
+        }
+        if (destination instanceof Flushable) {
+            ((Flushable) destination).flush();
+        }
+    }
+
+    /**
+     * Returns the number of characters waiting in the buffer.
+     */
+    public int getBufferedLength() {
+        return buffer.length();
+    }
+
+    private void flushIfFull() throws IOException {
+        if (policy != FlushPolicy.GAME_END && buffer.length() >= capacity) {
+            flush();
+        }
+    }
+}
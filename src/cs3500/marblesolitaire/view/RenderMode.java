@@ -0,0 +1,22 @@
+package cs3500.marblesolitaire.view;
+
+/**
+ * How a text view writes the board each time it is rendered.
+ */
+public enum RenderMode {
+    /**
+     * Every render reads every slot of the model and writes the whole board.
+     */
+    FULL,
+    /**
+     * Every render writes the whole board, but rows are kept between renders and only
+     * the rows changed since the last render are read from the model again.
+     */
+    CACHED,
+    /**
+     * For ANSI terminals: the first render clears the screen, draws the board at the
+     * top and keeps it there by scrolling only the lines below it; later renders move
+     * the cursor to the rows that changed and redraw only those.
+     */
+    ANSI
+}
@@ -0,0 +1,183 @@
+package cs3500.marblesolitaire.view;
+
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+
+import java.io.IOException;
+
+/**
+ * The rendered rows of a board, kept between renders so that a render only has to
+ * format again the rows a move touched.
+ * <p>
+ * A move changes three holes, in at most three rows. A view passes every move on to
+ * moved, which marks those rows dirty and XORs the Zobrist keys of the three holes
+ * into the hash the board should have next. When the board is rendered and the
+ * model's hash is that hash, only the dirty rows are formatted; otherwise the model
+ * has changed in some other way, for instance through undo, and every row is
+ * formatted again. Checking the hash costs nothing with the models of this project,
+ * which keep it up to date.
+ * <p>
+ * In RenderMode.CACHED the whole board is then written from the kept rows, exactly
+ * as the view's toString would write it. In RenderMode.ANSI a full render clears the
+ * screen, draws the board at the top and sets the terminal's scrolling region to the
+ * lines below it, so that messages and typed input never scroll the board away. Every
+ * other render saves the cursor, moves it to each dirty row to clear and redraw it,
+ * and restores the cursor, so its cost does not depend on the size of the board. The
+ * whole board must fit on the screen.
+ */
+public final class RowCache {
+    /**
+     * Formats one row of a board.
+     */
+    @FunctionalInterface
+    public interface RowFormat {
+        /**
+         * Appends a row of the board, without a line break.
+         *
+         * @param row the row to format
+         * @param out the buffer to append it to
+         */
+        void appendRow(int row, StringBuilder out);
+    }
+
+    private static final String ESC = "\u001b";
+    // More dirty rows than this between renders are not tracked one by one
+    private static final int MAX_DIRTY = 12;
+
+    private final MarbleSolitaireModelState model;
+    private final RowFormat format;
+    private final boolean ansi;
+    private final BoardGeometry geometry;
+    private final StringBuilder[] rows;
+    private final RowWriter rowWriter = new RowWriter();
+    private final int[] dirty = new int[MAX_DIRTY];
+    private int dirtyCount;
+    // Every row must be formatted and written again
+    private boolean stale = true;
+    private long expectedHash;
+
+    /**
+     * Creates an empty cache, so that the first render formats every row.
+     *
+     * @param model  the model the rows show
+     * @param format the row format of the view
+     * @param mode   RenderMode.CACHED or RenderMode.ANSI
+     * @throws IllegalArgumentException if an argument is null or the mode is FULL
+     */
+    public RowCache(MarbleSolitaireModelState model, RowFormat format, RenderMode mode) {
+        if (model == null || format == null || mode == null || mode == RenderMode.FULL) {
+            throw new IllegalArgumentException("A row cache needs a model, a format and a caching mode");
+        }
+        this.model = model;
+        this.format = format;
+        this.ansi = mode == RenderMode.ANSI;
+        this.geometry = model.getGeometry();
+        this.rows = new StringBuilder[model.getBoardSize()];
+        for (int r = 0; r < rows.length; r++) {
+            rows[r] = new StringBuilder();
+        }
+    }
+
+    /**
+     * Records a move made on the model since the last render.
+     *
+     * @param fromRow the row of the marble that moved
+     * @param fromCol the column of the marble that moved
+     * @param toRow   the row it moved to
+     * @param toCol   the column it moved to
+     */
+    public void moved(int fromRow, int fromCol, int toRow, int toCol) {
+        int overRow = (fromRow + toRow) / 2;
+        int overCol = (fromCol + toCol) / 2;
+        int from = geometry.cellIndex(fromRow, fromCol);
+        int over = geometry.cellIndex(overRow, overCol);
+        int to = geometry.cellIndex(toRow, toCol);
+        if (from < 0 || over < 0 || to < 0) {
+            stale = true;
+            return;
+        }
+        expectedHash ^= geometry.zobristKey(from) ^ geometry.zobristKey(over)
+                ^ geometry.zobristKey(to);
+        markDirty(fromRow);
+        markDirty(overRow);
+        markDirty(toRow);
+    }
+
+    /**
+     * Forgets every kept row, so that the next render formats and writes the whole
+     * board.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private void markDirty(int row) {
+        for (int i = 0; i < dirtyCount; i++) {
+            if (dirty[i] == row) {
+                return;
+            }
+        }
+        if (dirtyCount == MAX_DIRTY) {
+            stale = true;
+        } else {
+            dirty[dirtyCount++] = row;
+        }
+    }
+
+    /**
+     * Brings the kept rows up to date with the model and writes the board.
+     *
+     * @param out the destination
+     * @throws IOException if the destination fails
+     */
+    public void render(Appendable out) throws IOException {
+        long hash = model.getZobristHash();
+        boolean full = stale || hash != expectedHash;
+        if (full) {
+            for (int r = 0; r < rows.length; r++) {
+                formatRow(r);
+            }
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                formatRow(dirty[i]);
+            }
+        }
+        expectedHash = hash;
+        stale = false;
+
+        if (!ansi) {
+            writeRows(out);
+        } else if (full) {
+            // Reset the scrolling region, then clear the screen and draw from the top
+            out.append(ESC).append("[r").append(ESC).append("[H").append(ESC).append("[2J");
+            writeRows(out);
+            // Scroll only the lines below the board, and continue on the first of them
+            String below = Integer.toString(rows.length + 1);
+            out.append(ESC).append('[').append(below).append('r');
+            out.append(ESC).append('[').append(below).append(";1H");
+        } else if (dirtyCount > 0) {
+            out.append(ESC).append('7');
+            for (int i = 0; i < dirtyCount; i++) {
+                out.append(ESC).append('[').append(Integer.toString(dirty[i] + 1)).append(";1H");
+                out.append(ESC).append("[2K");
+                rowWriter.write(out, rows[dirty[i]]);
+            }
+            out.append(ESC).append('8');
+        }
+        dirtyCount = 0;
+    }
+
+    private void formatRow(int row) {
+        rows[row].setLength(0);
+        format.appendRow(row, rows[row]);
+    }
+
+    private void writeRows(Appendable out) throws IOException {
+        for (int r = 0; r < rows.length; r++) {
+            rowWriter.write(out, rows[r]);
+            if (r < rows.length - 1) {
+                out.append('\n');
+            }
+        }
+    }
+}
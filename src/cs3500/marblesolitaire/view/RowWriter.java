@@ -0,0 +1,52 @@
+package cs3500.marblesolitaire.view;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writes the rows of a rendered board to a destination without turning each row
+ * into a String.
+ * <p>
+ * On a Writer or a PrintStream, append(CharSequence) copies its argument into a new
+ * String before writing it. A Writer is given the row through one reused char array
+ * instead. A PrintStream only prints whole arrays, so it gets one reused array per
+ * row length. A StringBuilder or an OutputSink copies the characters of a
+ * CharSequence straight into its own buffer, so every other destination is appended
+ * to directly.
+ */
+final class RowWriter {
+    private char[] chars = new char[0];
+    // exact[n] holds exactly n characters, for PrintStream.print(char[])
+    private char[][] exact = new char[0][];
+
+    /**
+     * Writes one row to a destination.
+     *
+     * @param out the destination
+     * @param row the row, which is not changed
+     * @throws IOException if the destination fails
+     */
+    void write(Appendable out, StringBuilder row) throws IOException {
+        int length = row.length();
+        if (out instanceof Writer) {
+            if (chars.length < length) {
+                chars = new char[Math.max(length, 2 * chars.length)];
+            }
+            row.getChars(0, length, chars, 0);
+            ((Writer) out).write(chars, 0, length);
+        } else if (out instanceof PrintStream) {
+            if (exact.length <= length) {
+                exact = Arrays.copyOf(exact, length + 1);
+            }
+            if (exact[length] == null) {
+                exact[length] = new char[length];
+            }
+            row.getChars(0, length, exact[length], 0);
+            ((PrintStream) out).print(exact[length]);
+        } else {
+            out.append(row);
+        }
+    }
+}
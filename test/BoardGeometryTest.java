@@ -0,0 +1,95 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BoardGeometry.
+ * Tests that geometries are shared between models and that the jump tables match
+ * the known move counts of the standard boards.
+ */
+public class BoardGeometryTest {
+
+    /**
+     * Tests that models of the same variant and size share one geometry.
+     */
+    @Test
+    public void testGeometryIsShared() {
+        assertSame(new EnglishSolitaireModel().getGeometry(),
+                new EnglishSolitaireModel(0, 3).getGeometry());
+        assertSame(new TriangleSolitaireModel().getGeometry(),
+                new TriangleSolitaireModel(2, 1).getGeometry());
+        assertNotSame(new EnglishSolitaireModel().getGeometry(),
+                new EuropeanSolitaireModel().getGeometry());
+        assertNotSame(new EnglishSolitaireModel().getGeometry(),
+                new EnglishSolitaireModel(5).getGeometry());
+    }
+
+    /**
+     * Tests that geometries derived from the holes of a state are shared by states
+     * with the same holes, and only by them.
+     */
+    @Test
+    public void testDerivedGeometryIsShared() {
+        BoardGeometry english = BoardGeometry.fromState(new EnglishSolitaireModel());
+        assertSame(english, BoardGeometry.fromState(new EnglishSolitaireModel(0, 3)));
+        assertNotSame(english, BoardGeometry.fromState(new EuropeanSolitaireModel()));
+        assertEquals(76, english.getJumpCount());
+        assertEquals(92, BoardGeometry.fromState(new EuropeanSolitaireModel()).getJumpCount());
+    }
+
+    /**
+     * Tests the number of jumps on the standard boards.
+     */
+    @Test
+    public void testJumpCounts() {
+        assertEquals(76, new EnglishSolitaireModel().getGeometry().getJumpCount());
+        assertEquals(92, new EuropeanSolitaireModel().getGeometry().getJumpCount());
+        assertEquals(36, new TriangleSolitaireModel().getGeometry().getJumpCount());
+        assertEquals(0, new TriangleSolitaireModel(2).getGeometry().getJumpCount());
+    }
+
+    /**
+     * Tests cell indexing on the rectangular and triangular boards.
+     */
+    @Test
+    public void testCellIndex() {
+        BoardGeometry english = new EnglishSolitaireModel().getGeometry();
+        assertEquals(-1, english.cellIndex(0, 0));
+        assertEquals(-1, english.cellIndex(-1, 3));
+        assertEquals(3 * 7 + 3, english.cellIndex(3, 3));
+        assertEquals(3, english.row(english.cellIndex(3, 5)));
+        assertEquals(5, english.col(english.cellIndex(3, 5)));
+
+        BoardGeometry triangle = new TriangleSolitaireModel().getGeometry();
+        assertEquals(15, triangle.getCellCount());
+        assertEquals(0, triangle.cellIndex(0, 0));
+        assertEquals(4, triangle.cellIndex(2, 1));
+        assertEquals(-1, triangle.cellIndex(2, 3));
+        assertEquals(14, triangle.cellIndex(4, 4));
+    }
+
+    /**
+     * Tests that every jump is found from its end points and touches its three cells.
+     */
+    @Test
+    public void testJumpTable() {
+        BoardGeometry european = new EuropeanSolitaireModel().getGeometry();
+        for (int j = 0; j < european.getJumpCount(); j++) {
+            int from = european.jumpFrom(j);
+            int over = european.jumpOver(j);
+            int to = european.jumpTo(j);
+            assertTrue(european.isValid(from) && european.isValid(over) && european.isValid(to));
+            assertEquals(j, european.findJump(from, to));
+            assertEquals(2, Math.abs(european.row(to) - european.row(from))
+                    + Math.abs(european.col(to) - european.col(from)));
+        }
+        int center = european.cellIndex(3, 3);
+        // 4 jumps start at, 4 land on and 4 pass over the centre of the board
+        assertEquals(12, european.touchingCount(center));
+        assertEquals(-1, european.findJump(center, european.cellIndex(3, 4)));
+    }
+}
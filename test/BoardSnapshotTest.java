@@ -0,0 +1,173 @@
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState.SlotState;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BoardSnapshot.
+ * Tests that snapshots are independent of the live game, compare by position and
+ * restore into models of the variant they were taken from.
+ */
+public class BoardSnapshotTest {
+
+    /**
+     * Tests that a snapshot keeps the position it was taken at while the game goes on.
+     */
+    @Test
+    public void testSnapshotIsImmutable() {
+        EnglishSolitaireModel model = new EnglishSolitaireModel();
+        model.move(5, 3, 3, 3);
+        BoardSnapshot snapshot = model.snapshot();
+        model.move(4, 1, 4, 3);
+
+        assertEquals(31, snapshot.getScore());
+        assertEquals(30, model.getScore());
+        assertEquals(SlotState.Marble, snapshot.getSlotAt(4, 1));
+        assertEquals(SlotState.Empty, snapshot.getSlotAt(5, 3));
+        assertEquals(SlotState.Invalid, snapshot.getSlotAt(0, 0));
+        assertSame(model.getGeometry(), snapshot.getGeometry());
+
+        long[] marbles = snapshot.getMarbles();
+        marbles[0] = 0;
+        assertEquals(31, snapshot.getScore());
+        assertEquals(SlotState.Marble, snapshot.getSlotAt(3, 3));
+    }
+
+    /**
+     * Tests that the same position reached by different moves gives equal snapshots.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        EnglishSolitaireModel first = new EnglishSolitaireModel();
+        first.move(1, 3, 3, 3);
+        first.move(2, 1, 2, 3);
+        EnglishSolitaireModel second = new EnglishSolitaireModel();
+        second.move(1, 3, 3, 3);
+        second.move(2, 1, 2, 3);
+        BoardSnapshot common = first.snapshot();
+
+        // The last two moves do not touch each other, so either order gives one position
+        first.move(0, 2, 2, 2);
+        first.move(3, 3, 1, 3);
+        second.move(3, 3, 1, 3);
+        second.move(0, 2, 2, 2);
+        assertEquals(first.snapshot(), second.snapshot());
+        assertEquals(first.snapshot().hashCode(), second.snapshot().hashCode());
+        assertNotEquals(common, first.snapshot());
+
+        // A European board never equals an English one
+        assertNotEquals(new EnglishSolitaireModel().snapshot(),
+                new EuropeanSolitaireModel().snapshot());
+
+        Set<BoardSnapshot> seen = new HashSet<>();
+        assertTrue(seen.add(first.snapshot()));
+        assertFalse(seen.add(second.snapshot()));
+    }
+
+    /**
+     * Tests that the order of snapshots is consistent with equals.
+     */
+    @Test
+    public void testCompareTo() {
+        EnglishSolitaireModel model = new EnglishSolitaireModel();
+        BoardSnapshot start = model.snapshot();
+        model.move(5, 3, 3, 3);
+        BoardSnapshot after = model.snapshot();
+
+        assertEquals(0, start.compareTo(new EnglishSolitaireModel().snapshot()));
+        assertEquals(-Integer.signum(start.compareTo(after)), Integer.signum(after.compareTo(start)));
+        assertNotEquals(0, start.compareTo(after));
+
+        Set<BoardSnapshot> sorted = new TreeSet<>();
+        sorted.add(after);
+        sorted.add(start);
+        sorted.add(new EnglishSolitaireModel().snapshot());
+        sorted.add(new TriangleSolitaireModel().snapshot());
+        assertEquals(3, sorted.size());
+    }
+
+    /**
+     * Tests that a restored model plays on independently of the original game.
+     */
+    @Test
+    public void testToModel() {
+        EuropeanSolitaireModel model = new EuropeanSolitaireModel();
+        model.move(1, 3, 3, 3);
+        MarbleSolitaireModel restored = model.snapshot().toModel();
+
+        assertTrue(restored instanceof EuropeanSolitaireModel);
+        assertEquals(model.getScore(), restored.getScore());
+        assertEquals(model.getLegalMoves(new int[0]), restored.getLegalMoves(new int[0]));
+        assertFalse(restored.canUndo());
+
+        restored.move(1, 1, 1, 3);
+        assertEquals(SlotState.Marble, model.getSlotAt(1, 1));
+        assertEquals(SlotState.Empty, restored.getSlotAt(1, 1));
+    }
+
+    /**
+     * Tests restoring a triangular board.
+     */
+    @Test
+    public void testTriangleRoundTrip() {
+        TriangleSolitaireModel model = new TriangleSolitaireModel(6, 2, 1);
+        model.move(4, 1, 2, 1);
+        BoardSnapshot snapshot = model.snapshot();
+        MarbleSolitaireModel restored = snapshot.toModel();
+
+        assertTrue(restored instanceof TriangleSolitaireModel);
+        assertEquals(snapshot, restored.snapshot());
+        for (int r = 0; r < 6; r++) {
+            for (int c = 0; c < 6; c++) {
+                assertEquals(model.getSlotAt(r, c), restored.getSlotAt(r, c));
+            }
+        }
+    }
+
+    /**
+     * Tests that a snapshot of a plain state reads its holes but has no model to
+     * restore into.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPlainStateSnapshot() {
+        EnglishSolitaireModel model = new EnglishSolitaireModel();
+        MarbleSolitaireModelState view = new MarbleSolitaireModelState() {
+            @Override
+            public int getBoardSize() {
+                return model.getBoardSize();
+            }
+
+            @Override
+            public SlotState getSlotAt(int row, int col) {
+                return model.getSlotAt(row, col);
+            }
+
+            @Override
+            public int getScore() {
+                return model.getScore();
+            }
+        };
+        BoardSnapshot snapshot = view.snapshot();
+        assertEquals(32, snapshot.getScore());
+        assertEquals(SlotState.Empty, snapshot.getSlotAt(3, 3));
+        snapshot.toModel();
+    }
+
+    /**
+     * Tests that a snapshot cannot be restored as another variant.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRestoreWrongVariant() {
+        new EuropeanSolitaireModel(new EnglishSolitaireModel().snapshot());
+    }
+}
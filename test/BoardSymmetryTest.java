@@ -0,0 +1,105 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.BoardSymmetry;
+import cs3500.marblesolitaire.solver.Move;
+import cs3500.marblesolitaire.solver.Positions;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for BoardSymmetry.
+ * Tests the symmetry groups of the standard boards, canonical forms and mapping
+ * moves between orientations.
+ */
+public class BoardSymmetryTest {
+
+    /**
+     * Tests the number of symmetries of each board.
+     */
+    @Test
+    public void testTransformCounts() {
+        assertEquals(8, BoardSymmetry.of(new EnglishSolitaireModel().getGeometry())
+                .getTransformCount());
+        assertEquals(8, BoardSymmetry.of(new EuropeanSolitaireModel().getGeometry())
+                .getTransformCount());
+        assertEquals(6, BoardSymmetry.of(new TriangleSolitaireModel().getGeometry())
+                .getTransformCount());
+    }
+
+    /**
+     * Tests that every position of a symmetry class has the same canonical form.
+     */
+    @Test
+    public void testCanonicalFormOfSymmetricStarts() {
+        BoardSymmetry symmetry = BoardSymmetry.of(new EnglishSolitaireModel().getGeometry());
+        long canonical = symmetry.canonical(Positions.of(new EnglishSolitaireModel(0, 2)));
+        assertEquals(canonical, symmetry.canonical(Positions.of(new EnglishSolitaireModel(0, 4))));
+        assertEquals(canonical, symmetry.canonical(Positions.of(new EnglishSolitaireModel(2, 6))));
+        assertEquals(canonical, symmetry.canonical(Positions.of(new EnglishSolitaireModel(6, 4))));
+        assertNotEquals(canonical, symmetry.canonical(Positions.of(new EnglishSolitaireModel(0, 3))));
+
+        BoardSymmetry triangle = BoardSymmetry.of(new TriangleSolitaireModel().getGeometry());
+        long corner = triangle.canonical(Positions.of(new TriangleSolitaireModel(0, 0)));
+        assertEquals(corner, triangle.canonical(Positions.of(new TriangleSolitaireModel(4, 0))));
+        assertEquals(corner, triangle.canonical(Positions.of(new TriangleSolitaireModel(4, 4))));
+    }
+
+    /**
+     * Tests that the canonical transform and its inverse lead back to the position.
+     */
+    @Test
+    public void testCanonicalTransformAndInverse() {
+        MarbleSolitaireModel model = new EuropeanSolitaireModel(1, 1);
+        model.move(3, 1, 1, 1);
+        long position = Positions.of(model);
+        BoardSymmetry symmetry = BoardSymmetry.of(model.getGeometry());
+        int t = symmetry.canonicalTransform(position);
+        long canonical = symmetry.transform(position, t);
+        assertEquals(symmetry.canonical(position), canonical);
+        assertEquals(position, symmetry.transform(canonical, symmetry.inverse(t)));
+    }
+
+    /**
+     * Tests that a move on a transformed position maps to the matching move on the
+     * original position.
+     */
+    @Test
+    public void testTransformMove() {
+        BoardGeometry geometry = new EnglishSolitaireModel().getGeometry();
+        BoardSymmetry symmetry = BoardSymmetry.of(geometry);
+        for (int t = 0; t < symmetry.getTransformCount(); t++) {
+            Move image = symmetry.transformMove(new Move(3, 1, 3, 3), t);
+            Move back = symmetry.transformMove(image, symmetry.inverse(t));
+            assertEquals(new Move(3, 1, 3, 3), back);
+            // Every image of a jump into the centre also lands in the centre
+            assertEquals(3, image.getToRow());
+            assertEquals(3, image.getToCol());
+        }
+    }
+
+    /**
+     * Tests the subgroup of symmetries that fix a start position.
+     */
+    @Test
+    public void testSubgroupFixing() {
+        BoardSymmetry symmetry = BoardSymmetry.of(new EnglishSolitaireModel().getGeometry());
+        assertEquals(8, symmetry.subgroupFixing(Positions.of(new EnglishSolitaireModel()))
+                .getTransformCount());
+        assertEquals(2, symmetry.subgroupFixing(Positions.of(new EnglishSolitaireModel(0, 3)))
+                .getTransformCount());
+        assertEquals(1, symmetry.subgroupFixing(Positions.of(new EnglishSolitaireModel(0, 2)))
+                .getTransformCount());
+    }
+
+    /**
+     * Tests that boards too large for 64-bit positions are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoardTooLarge() {
+        BoardSymmetry.of(new EnglishSolitaireModel(5).getGeometry());
+    }
+}
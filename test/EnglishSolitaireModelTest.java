@@ -1,4 +1,6 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
 import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel.MoveStatus;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState.SlotState;
 import org.junit.Before;
 import org.junit.Test;
@@ -385,4 +387,257 @@ public class EnglishSolitaireModelTest {
         EnglishSolitaireModel bigModel = new EnglishSolitaireModel(5);
         assertEquals(104, bigModel.getScore());
     }
-}
\ No newline at end of file
+
+    // Multi-word Bitboard Tests
+
+    /**
+     * Tests moves on a board large enough to span several bitboard words,
+     * including jumps whose slots fall in different words.
+     */
+    @Test
+    public void testMovesAcrossBitboardWords() {
+        EnglishSolitaireModel bigModel = new EnglishSolitaireModel(7);
+        assertEquals(SlotState.Empty, bigModel.getSlotAt(9, 9));
+        bigModel.move(7, 9, 9, 9);
+        assertEquals(SlotState.Empty, bigModel.getSlotAt(7, 9));
+        assertEquals(SlotState.Empty, bigModel.getSlotAt(8, 9));
+        assertEquals(SlotState.Marble, bigModel.getSlotAt(9, 9));
+        assertEquals(SlotState.Invalid, bigModel.getSlotAt(0, 0));
+        assertEquals(SlotState.Invalid, bigModel.getSlotAt(18, 18));
+        assertEquals(bigModel.getScore() + 1, new EnglishSolitaireModel(7).getScore());
+        assertFalse(bigModel.isGameOver());
+    }
+
+    // Legal Move Enumeration Tests
+
+    /**
+     * Tests that the legal moves listed into a buffer are exactly the jumps that
+     * move accepts, on a single-word and a multi-word board.
+     */
+    @Test
+    public void testGetLegalMoves() {
+        int[] moves = new int[model1.getGeometry().getJumpCount()];
+        assertEquals(4, model1.getLegalMoves(moves));
+        model1.move(3, 1, 3, 3);
+        assertEquals(3, model1.getLegalMoves(moves));
+        BoardGeometry geometry = model1.getGeometry();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SlotState.Marble, slot(model1, geometry.jumpFrom(moves[i])));
+            assertEquals(SlotState.Empty, slot(model1, geometry.jumpTo(moves[i])));
+            assertTrue(i == 0 || moves[i - 1] < moves[i]);
+        }
+
+        int[] big = new int[model3.getGeometry().getJumpCount()];
+        assertEquals(4, model3.getLegalMoves(big));
+        int jump = big[2];
+        model3.move(model3.getGeometry().row(model3.getGeometry().jumpFrom(jump)),
+                model3.getGeometry().col(model3.getGeometry().jumpFrom(jump)),
+                model3.getGeometry().row(model3.getGeometry().jumpTo(jump)),
+                model3.getGeometry().col(model3.getGeometry().jumpTo(jump)));
+        // Both emptied holes can now be jumped into from three directions
+        assertEquals(6, model3.getLegalMoves(big));
+    }
+
+    /**
+     * Tests that a short buffer is filled but every legal move is still counted.
+     */
+    @Test
+    public void testGetLegalMovesShortBuffer() {
+        int[] all = new int[4];
+        int[] moves = new int[2];
+        assertEquals(4, model1.getLegalMoves(all));
+        assertEquals(4, model1.getLegalMoves(moves));
+        assertEquals(all[0], moves[0]);
+        assertEquals(all[1], moves[1]);
+        assertEquals(4, model1.getLegalMoves(new int[0]));
+    }
+
+    /**
+     * Tests that the callback sees the same moves as the buffer, and none once the
+     * game is over.
+     */
+    @Test
+    public void testForEachLegalMove() {
+        int[] moves = new int[model2.getGeometry().getJumpCount()];
+        int count = model2.getLegalMoves(moves);
+        int[] seen = new int[1];
+        model2.forEachLegalMove(jump -> assertEquals(moves[seen[0]++], jump));
+        assertEquals(count, seen[0]);
+
+        EnglishSolitaireModel small = new EnglishSolitaireModel(1);
+        small.forEachLegalMove(jump -> fail("No moves on a single hole board"));
+        assertEquals(0, small.getLegalMoves(new int[4]));
+    }
+
+    // Non-throwing Move Tests
+
+    /**
+     * Tests that tryMove reports the first rule an illegal move breaks and leaves
+     * the board unchanged.
+     */
+    @Test
+    public void testTryMoveStatuses() {
+        assertEquals(MoveStatus.INVALID_POSITION, model1.tryMove(0, 0, 0, 2));
+        assertEquals(MoveStatus.INVALID_POSITION, model1.tryMove(3, 5, 3, 7));
+        assertEquals(MoveStatus.NO_MARBLE_AT_SOURCE, model1.tryMove(3, 3, 3, 5));
+        assertEquals(MoveStatus.DESTINATION_NOT_EMPTY, model1.tryMove(3, 1, 3, 2));
+        assertEquals(MoveStatus.NOT_A_JUMP, model1.tryMove(2, 2, 3, 3));
+        assertEquals(32, model1.getScore());
+        assertEquals(MoveStatus.OK, model1.tryMove(3, 1, 3, 3));
+        assertEquals(MoveStatus.NO_MARBLE_TO_JUMP_OVER, model1.tryMove(3, 3, 3, 1));
+        assertEquals(31, model1.getScore());
+        assertEquals(SlotState.Marble, model1.getSlotAt(3, 3));
+    }
+
+    /**
+     * Tests that move still throws with the message "Invalid move", whatever reason
+     * tryMove reports.
+     */
+    @Test
+    public void testMoveThrowsInvalidMove() {
+        try {
+            model1.move(3, 3, 3, 5);
+            fail("Move should have been rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid move", e.getMessage());
+        }
+        assertEquals("Invalid move", model1.getMoveMessage(MoveStatus.NOT_A_JUMP));
+    }
+
+    /**
+     * Tests a board with an arm thickness in the hundreds, spread over many words.
+     */
+    @Test
+    public void testVeryLargeBoard() {
+        EnglishSolitaireModel large = new EnglishSolitaireModel(101);
+        assertEquals(301, large.getBoardSize());
+        assertEquals(301 * 301 - 4 * 100 * 100 - 1, large.getScore());
+        assertEquals(4, large.getLegalMoves(new int[0]));
+        assertEquals(SlotState.Invalid, large.getSlotAt(99, 99));
+        assertEquals(SlotState.Marble, large.getSlotAt(100, 100));
+
+        large.move(148, 150, 150, 150);
+        assertEquals(SlotState.Empty, large.getSlotAt(149, 150));
+        assertEquals(SlotState.Marble, large.getSlotAt(150, 150));
+        assertEquals(6, large.getLegalMoves(new int[0]));
+        assertFalse(large.isGameOver());
+    }
+
+    /**
+     * Tests that the running Zobrist hash matches a full recomputation, follows the
+     * position rather than the moves, and is restored by undo.
+     */
+    @Test
+    public void testZobristHash() {
+        long start = model1.getZobristHash();
+        assertEquals(start, new EnglishSolitaireModel().getZobristHash());
+        assertEquals(model1.getGeometry().zobristHash(model1.snapshot().getMarbles()), start);
+
+        model1.move(1, 3, 3, 3);
+        model1.move(2, 1, 2, 3);
+        model1.move(0, 2, 2, 2);
+        model1.move(3, 3, 1, 3);
+        assertNotEquals(start, model1.getZobristHash());
+        assertEquals(model1.getGeometry().zobristHash(model1.snapshot().getMarbles()),
+                model1.getZobristHash());
+
+        EnglishSolitaireModel other = new EnglishSolitaireModel();
+        other.move(1, 3, 3, 3);
+        other.move(2, 1, 2, 3);
+        other.move(3, 3, 1, 3);
+        other.move(0, 2, 2, 2);
+        assertEquals(model1.getZobristHash(), other.getZobristHash());
+
+        for (int i = 0; i < 4; i++) {
+            model1.undo();
+        }
+        assertEquals(start, model1.getZobristHash());
+    }
+
+    // Undo and Redo Tests
+
+    /**
+     * Tests that undo takes back moves one at a time and redo makes them again.
+     */
+    @Test
+    public void testUndoRedo() {
+        assertFalse(model1.canUndo());
+        model1.move(5, 3, 3, 3);
+        model1.move(4, 1, 4, 3);
+        assertTrue(model1.canUndo());
+        assertFalse(model1.canRedo());
+
+        model1.undo();
+        assertEquals(31, model1.getScore());
+        assertEquals(SlotState.Marble, model1.getSlotAt(4, 1));
+        assertEquals(SlotState.Marble, model1.getSlotAt(4, 2));
+        assertEquals(SlotState.Empty, model1.getSlotAt(4, 3));
+        assertTrue(model1.canRedo());
+
+        model1.redo();
+        assertEquals(30, model1.getScore());
+        assertEquals(SlotState.Marble, model1.getSlotAt(4, 3));
+        assertFalse(model1.canRedo());
+    }
+
+    /**
+     * Tests that a new move after an undo discards the moves that could be redone.
+     */
+    @Test
+    public void testMoveAfterUndoClearsRedo() {
+        model1.move(5, 3, 3, 3);
+        model1.undo();
+        model1.move(1, 3, 3, 3);
+        assertFalse(model1.canRedo());
+        assertEquals(SlotState.Marble, model1.getSlotAt(5, 3));
+        assertEquals(SlotState.Empty, model1.getSlotAt(1, 3));
+    }
+
+    /**
+     * Tests that undoing a whole game on a multi-word board restores the start,
+     * including the legal moves, and that redo replays it to the same end.
+     */
+    @Test
+    public void testUndoWholeGame() {
+        EnglishSolitaireModel fresh = new EnglishSolitaireModel(5);
+        int[] moves = new int[model3.getGeometry().getJumpCount()];
+        int made = 0;
+        while (!model3.isGameOver()) {
+            int count = model3.getLegalMoves(moves);
+            int jump = moves[made % 2 == 0 ? 0 : count - 1];
+            BoardGeometry geometry = model3.getGeometry();
+            model3.move(geometry.row(geometry.jumpFrom(jump)), geometry.col(geometry.jumpFrom(jump)),
+                    geometry.row(geometry.jumpTo(jump)), geometry.col(geometry.jumpTo(jump)));
+            made++;
+        }
+        int endScore = model3.getScore();
+        for (int i = 0; i < made; i++) {
+            model3.undo();
+        }
+        assertFalse(model3.canUndo());
+        assertEquals(fresh.getScore(), model3.getScore());
+        assertEquals(fresh.getLegalMoves(new int[0]), model3.getLegalMoves(moves));
+        for (int r = 0; r < fresh.getBoardSize(); r++) {
+            for (int c = 0; c < fresh.getBoardSize(); c++) {
+                assertEquals(fresh.getSlotAt(r, c), model3.getSlotAt(r, c));
+            }
+        }
+        while (model3.canRedo()) {
+            model3.redo();
+        }
+        assertEquals(endScore, model3.getScore());
+        assertTrue(model3.isGameOver());
+    }
+
+    /**
+     * Tests that undo with no moves made is rejected.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testUndoAtStart() {
+        model1.undo();
+    }
+
+    private static SlotState slot(EnglishSolitaireModel model, int cell) {
+        return model.getSlotAt(model.getGeometry().row(cell), model.getGeometry().col(cell));
+    }
+}
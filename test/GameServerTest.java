@@ -0,0 +1,94 @@
+import cs3500.marblesolitaire.controller.MarbleSolitaireControllerImpl;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.server.GameFactory;
+import cs3500.marblesolitaire.server.GameServer;
+import cs3500.marblesolitaire.server.LoadTestClient;
+import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for GameServer and LoadTestClient over loopback connections.
+ */
+public class GameServerTest {
+    private static final GameFactory ENGLISH = (in, out) -> {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        return new MarbleSolitaireControllerImpl(model, new MarbleSolitaireTextView(model, out), in);
+    };
+
+    /**
+     * Sends input over a new connection and returns everything the server wrote back.
+     */
+    private static String talk(int port, String input) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.getOutputStream().write(input.getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                received.write(buffer, 0, n);
+            }
+            return received.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Tests that a connection plays the same game as the console controller would.
+     */
+    @Test
+    public void testOneGame() throws IOException {
+        try (GameServer server = new GameServer(0, ENGLISH)) {
+            server.start();
+            String output = talk(server.getPort(), "2 4 4 4\nq\n");
+
+            StringBuilder expected = new StringBuilder();
+            MarbleSolitaireModel model = new EnglishSolitaireModel();
+            new MarbleSolitaireControllerImpl(model, new MarbleSolitaireTextView(model, expected),
+                    new StringReader("2 4 4 4\nq\n")).playGame();
+            assertEquals(expected.toString(), output);
+        }
+    }
+
+    /**
+     * Tests that every connection gets a game of its own.
+     */
+    @Test
+    public void testSeparateGames() throws IOException {
+        try (GameServer server = new GameServer(0, ENGLISH)) {
+            server.start();
+            assertTrue(talk(server.getPort(), "2 4 4 4 q\n").endsWith("Score: 31\n"));
+            assertTrue(talk(server.getPort(), "q\n").endsWith("Score: 32\n"));
+            assertEquals(2, server.getConnectionsAccepted());
+        }
+    }
+
+    /**
+     * Tests that the load test client plays many games at once without errors.
+     */
+    @Test
+    public void testLoadTest() throws Exception {
+        GameServer server = new GameServer(0, ENGLISH);
+        server.start();
+        LoadTestClient client = new LoadTestClient(server.getPort(), "english", 10);
+        String report = client.run(60, 20, 7);
+        server.close();
+
+        assertEquals(0, client.getErrors());
+        assertEquals(600, client.getMoves());
+        assertEquals(60, server.getGamesFinished());
+        assertEquals(0, server.getActiveGames());
+        assertTrue(report.contains("moves/s"));
+    }
+}
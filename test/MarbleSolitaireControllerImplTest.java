@@ -2,13 +2,18 @@ import cs3500.marblesolitaire.controller.MarbleSolitaireController;
 import cs3500.marblesolitaire.controller.MarbleSolitaireControllerImpl;
 import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireTextView;
 import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
 import cs3500.marblesolitaire.view.MarbleSolitaireView;
+import cs3500.marblesolitaire.view.RenderMode;
 import org.junit.Test;
 
 import java.io.StringReader;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -132,6 +137,39 @@ public class MarbleSolitaireControllerImplTest {
         assertEquals(32, model.getScore()); // No successful move
     }
 
+    /**
+     * Tests that an invalid move reports the message the model gives for it: the
+     * reason on the triangle board, and "Invalid move" on the English board.
+     */
+    @Test
+    public void testInvalidMoveReason() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new TriangleSolitaireTextView(model, output);
+        MarbleSolitaireController controller = new MarbleSolitaireControllerImpl(
+                model, view, new StringReader("1 1 3 1 3 1 5 1 q"));
+
+        controller.playGame();
+
+        assertTrue(output.toString().contains(
+                "Invalid move. Play again. No marble at source position\n"));
+        assertTrue(output.toString().contains(
+                "Invalid move. Play again. Destination is not empty\n"));
+        assertEquals(14, model.getScore());
+
+        model = new EnglishSolitaireModel();
+        output = new StringBuilder();
+        view = new MarbleSolitaireTextView(model, output);
+        controller = new MarbleSolitaireControllerImpl(
+                model, view, new StringReader("4 4 4 6 2 4 3 4 q"));
+
+        controller.playGame();
+
+        assertFalse(output.toString().contains("No marble at source position"));
+        assertTrue(output.toString().contains("Invalid move. Play again. Invalid move\n"));
+        assertEquals(32, model.getScore());
+    }
+
     /**
      * Tests handling of negative number input.
      */
@@ -274,4 +312,142 @@ public class MarbleSolitaireControllerImplTest {
 
         assertEquals(31, model.getScore()); // Move succeeded
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that tokens are read the way Integer.parseInt reads them: a leading plus
+     * sign and leading zeros are accepted, while signs alone, zero and numbers too
+     * large for an int ask for re-entry.
+     */
+    @Test
+    public void testNumberTokens() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        MarbleSolitaireController controller = new MarbleSolitaireControllerImpl(
+                model, view, new StringReader("+2 - 004 + 0 2147483648 4\t\t+4 q"));
+
+        controller.playGame();
+
+        assertEquals(31, model.getScore());
+        String prompt = "Re-enter a positive integer greater than 0: ";
+        int count = output.toString().split(prompt, -1).length - 1;
+        assertEquals(4, count);
+    }
+
+    /**
+     * Tests input that arrives one character at a time, with a token longer than any
+     * read buffer.
+     */
+    @Test
+    public void testTokensAcrossReads() {
+        StringBuilder input = new StringBuilder("6\n4\n");
+        for (int i = 0; i < 20000; i++) {
+            input.append('x');
+        }
+        input.append(" 4 4 Q");
+        String text = input.toString();
+        Readable slow = new Readable() {
+            private int next;
+
+            @Override
+            public int read(java.nio.CharBuffer cb) {
+                if (next == text.length()) {
+                    return -1;
+                }
+                cb.put(text.charAt(next++));
+                return 1;
+            }
+        };
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        new MarbleSolitaireControllerImpl(model, view, slow).playGame();
+
+        assertEquals(31, model.getScore());
+        assertTrue(output.toString().contains("Re-enter a positive integer greater than 0: "));
+        assertTrue(output.toString().contains("Game quit!"));
+    }
+
+    /**
+     * Tests that a view caching its rows is told about every move and prints the same
+     * game as a view that renders the whole board each time.
+     */
+    @Test
+    public void testCachedViewMatchesFullView() {
+        String moves = "2 4 4 4 3 2 3 4 9 9 9 9 1 3 3 3 3 4 3 2 5 3 3 3 q";
+        MarbleSolitaireModel fullModel = new EnglishSolitaireModel();
+        StringBuilder fullOutput = new StringBuilder();
+        new MarbleSolitaireControllerImpl(fullModel,
+                new MarbleSolitaireTextView(fullModel, fullOutput),
+                new StringReader(moves)).playGame();
+
+        MarbleSolitaireModel cachedModel = new EnglishSolitaireModel();
+        StringBuilder cachedOutput = new StringBuilder();
+        new MarbleSolitaireControllerImpl(cachedModel,
+                new MarbleSolitaireTextView(cachedModel, cachedOutput, RenderMode.CACHED),
+                new StringReader(moves)).playGame();
+
+        assertEquals(fullOutput.toString(), cachedOutput.toString());
+        assertEquals(27, cachedModel.getScore());
+    }
+
+    /**
+     * Tests that a model implementing only move, without tryMove, still has the
+     * messages of the moves it rejects printed, and that any exception it throws from
+     * move is reported rather than ending the game.
+     */
+    @Test
+    public void testMoveOnlyModelMessages() {
+        MarbleSolitaireModel model = new MoveOnlyModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        MarbleSolitaireController controller = new MarbleSolitaireControllerImpl(
+                model, view, new StringReader("4 4 4 6 1 1 1 1 2 4 4 4 q"));
+
+        controller.playGame();
+
+        assertTrue(output.toString().contains("Invalid move. Play again. No marble here\n"));
+        assertTrue(output.toString().contains("Invalid move. Play again. Out of order\n"));
+        assertEquals(31, model.getScore());
+    }
+
+    /**
+     * A model that implements only the abstract methods, passing each on to an English
+     * game; it rejects moves with messages of its own.
+     */
+    private static class MoveOnlyModel implements MarbleSolitaireModel {
+        private final MarbleSolitaireModel game = new EnglishSolitaireModel();
+
+        @Override
+        public void move(int fromRow, int fromCol, int toRow, int toCol) {
+            if (fromRow == 0 && fromCol == 0) {
+                throw new IllegalStateException("Out of order");
+            }
+            try {
+                game.move(fromRow, fromCol, toRow, toCol);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("No marble here");
+            }
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return game.isGameOver();
+        }
+
+        @Override
+        public int getBoardSize() {
+            return game.getBoardSize();
+        }
+
+        @Override
+        public MarbleSolitaireModelState.SlotState getSlotAt(int row, int col) {
+            return game.getSlotAt(row, col);
+        }
+
+        @Override
+        public int getScore() {
+            return game.getScore();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import cs3500.marblesolitaire.controller.MarbleSolitaireReplayController;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireTextView;
+import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
+import cs3500.marblesolitaire.view.MarbleSolitaireView;
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for MarbleSolitaireReplayController.
+ */
+public class MarbleSolitaireReplayControllerTest {
+
+    /**
+     * Tests constructor throws IllegalArgumentException for null readable.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNullReadable() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        new MarbleSolitaireReplayController(model, new MarbleSolitaireTextView(model), null);
+    }
+
+    /**
+     * Tests that a replay renders the board and score once, after all the moves.
+     */
+    @Test
+    public void testReplayRendersOnce() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        MarbleSolitaireReplayController controller = new MarbleSolitaireReplayController(
+                model, view, new StringReader("2 4 4 4\n5 4 3 4\n"));
+
+        controller.playGame();
+
+        MarbleSolitaireModel expected = new EnglishSolitaireModel();
+        expected.move(1, 3, 3, 3);
+        expected.move(4, 3, 2, 3);
+        assertEquals("End of moves\n" + new MarbleSolitaireTextView(expected) + "\n"
+                + "Score: 30\nMoves applied: 2, rejected: 0\n", output.toString());
+        assertEquals(2, controller.getAppliedMoves());
+        assertEquals(0, controller.getRejectedMoves());
+    }
+
+    /**
+     * Tests that rejected moves and bad tokens are reported and the replay carries on.
+     */
+    @Test
+    public void testRejectedMoves() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        MarbleSolitaireReplayController controller = new MarbleSolitaireReplayController(
+                model, view, new StringReader("1 1 1 3 x 2 4 4 4 4 4 2 4 q 5 4 3 4"));
+
+        controller.playGame();
+
+        String result = output.toString();
+        assertTrue(result.startsWith("Rejected move 1: 1 1 1 3 (Invalid position)\n"
+                + "Skipped input that is not a positive integer\n"
+                + "Rejected move 3: 4 4 2 4 (No marble to jump over)\n"
+                + "Game quit!\n"));
+        assertTrue(result.endsWith("Score: 31\nMoves applied: 1, rejected: 2\n"));
+        assertEquals(31, model.getScore());
+    }
+
+    /**
+     * Tests that a move cut off by the end of the input is reported.
+     */
+    @Test
+    public void testIncompleteMove() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output);
+        new MarbleSolitaireReplayController(model, view, new StringReader("2 4 4")).playGame();
+
+        assertTrue(output.toString().startsWith("Incomplete move at end of input\nEnd of moves\n"));
+        assertEquals(32, model.getScore());
+    }
+
+    /**
+     * Tests that a replay stops at the end of the game without reading further moves.
+     */
+    @Test
+    public void testGameOver() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel(3);
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new TriangleSolitaireTextView(model, output);
+        MarbleSolitaireReplayController controller = new MarbleSolitaireReplayController(
+                model, view, new StringReader("3 1 1 1 3 3 3 1 1 1 3 3 x x x x"));
+
+        controller.playGame();
+
+        String result = output.toString();
+        assertTrue(model.isGameOver());
+        assertTrue(result.startsWith("Game over!\n"));
+        assertFalse(result.contains("Skipped"));
+        assertTrue(result.endsWith("Moves applied: 3, rejected: 0\n"));
+    }
+}
@@ -1,10 +1,15 @@
 import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
 import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
 import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
+import cs3500.marblesolitaire.view.RenderMode;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.*;
 
@@ -208,6 +213,67 @@ public class MarbleSolitaireTextViewTest {
         assertEquals(view1.toString(), output.toString());
     }
 
+    /**
+     * Tests that renderBoard writes a large board one row at a time, with the same
+     * output as toString.
+     */
+    @Test
+    public void testRenderBoardStreamsRows() throws IOException {
+        MarbleSolitaireModel large = new EnglishSolitaireModel(51);
+        large.move(73, 75, 75, 75);
+        StringBuilder output = new StringBuilder();
+        int[] longest = new int[1];
+        Appendable rows = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                longest[0] = Math.max(longest[0], csq.length());
+                output.append(csq);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) {
+                output.append(c);
+                return this;
+            }
+        };
+
+        new MarbleSolitaireTextView(large, rows).renderBoard();
+
+        String expected = new MarbleSolitaireTextView(large).toString();
+        assertEquals(expected, output.toString());
+        assertEquals(2 * large.getBoardSize() - 1, longest[0]);
+        assertFalse(expected.contains(" \n"));
+        assertTrue(expected.startsWith(" ".repeat(100) + "O O"));
+    }
+
+    /**
+     * Tests that rendering to a Writer or a PrintStream, which are given the rows as
+     * characters, matches toString in every render mode.
+     */
+    @Test
+    public void testRenderBoardToWriterAndPrintStream() throws IOException {
+        model1.move(1, 3, 3, 3);
+        String expected = new MarbleSolitaireTextView(model1).toString();
+        for (RenderMode mode : new RenderMode[]{RenderMode.FULL, RenderMode.CACHED}) {
+            StringWriter writer = new StringWriter();
+            new MarbleSolitaireTextView(model1, writer, mode).renderBoard();
+            assertEquals(expected, writer.toString());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            PrintStream stream = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+            MarbleSolitaireTextView view = new MarbleSolitaireTextView(model1, stream, mode);
+            view.renderBoard();
+            view.renderBoard();
+            assertEquals(expected + expected, bytes.toString(StandardCharsets.UTF_8));
+        }
+    }
+
     /**
      * Tests renderMessage with various inputs.
      */
@@ -0,0 +1,110 @@
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.simulation.MctsDecision;
+import cs3500.marblesolitaire.simulation.MctsPlayer;
+import cs3500.marblesolitaire.solver.Move;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for MctsPlayer.
+ * Tests that the search returns legal moves within its budget, reuses its tree
+ * between moves and plays small boards well.
+ */
+public class MctsPlayerTest {
+
+    private static void play(MarbleSolitaireModel model, MctsDecision decision) {
+        Move move = decision.getMove();
+        model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+    }
+
+    /**
+     * Tests that an iteration budget is used exactly and gives a legal move.
+     */
+    @Test
+    public void testIterationBudget() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        MctsDecision decision = new MctsPlayer(1, 1, 1.4).chooseMove(model, 500);
+        assertEquals(500, decision.getIterations());
+        assertTrue(decision.getIterationsPerSecond() > 0);
+        assertTrue(decision.getVisits() > 0 && decision.getVisits() <= 500);
+        assertTrue(decision.getValue() >= 0 && decision.getValue() <= 1);
+        assertEquals(model.getGeometry().findJump(
+                model.getGeometry().cellIndex(decision.getMove().getFromRow(),
+                        decision.getMove().getFromCol()),
+                model.getGeometry().cellIndex(decision.getMove().getToRow(),
+                        decision.getMove().getToCol())), decision.getJump());
+        assertEquals(32, model.getScore());
+        play(model, decision);
+        assertEquals(31, model.getScore());
+    }
+
+    /**
+     * Tests that the tree of the previous search is kept after its move is played.
+     */
+    @Test
+    public void testTreeReuse() {
+        MarbleSolitaireModel model = new EuropeanSolitaireModel();
+        MctsPlayer player = new MctsPlayer(1, 2, 1.4);
+        MctsDecision first = player.chooseMove(model, 1000);
+        assertEquals(0, first.getReusedVisits());
+        play(model, first);
+        MctsDecision second = player.chooseMove(model, 1000);
+        assertEquals(first.getVisits(), second.getReusedVisits());
+
+        player.reset();
+        assertEquals(0, player.chooseMove(model, 10).getReusedVisits());
+    }
+
+    /**
+     * Tests that several threads share the iteration budget.
+     */
+    @Test
+    public void testThreads() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel(7);
+        MctsDecision decision = new MctsPlayer(3, 3, 1.4).chooseMove(model, 900);
+        assertEquals(900, decision.getIterations());
+        play(model, decision);
+        assertEquals(26, model.getScore());
+    }
+
+    /**
+     * Tests that a time budget stops the search.
+     */
+    @Test
+    public void testTimeBudget() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel(5);
+        long begin = System.nanoTime();
+        MctsDecision decision = new MctsPlayer(2, 4, 1.4).chooseMoveWithin(model, 50);
+        assertTrue(System.nanoTime() - begin < 2_000_000_000L);
+        assertTrue(decision.getIterations() > 0);
+    }
+
+    /**
+     * Tests that the search solves the standard triangle.
+     */
+    @Test
+    public void testSolvesTriangle() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel();
+        MctsPlayer player = new MctsPlayer(1, 1, 1.4);
+        while (!model.isGameOver()) {
+            play(model, player.chooseMove(model, 2000));
+        }
+        assertEquals(1, model.getScore());
+    }
+
+    /**
+     * Tests that a finished game has no move to choose.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testGameOver() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel(3);
+        model.move(2, 2, 0, 0);
+        model.move(2, 0, 2, 2);
+        model.move(0, 0, 2, 0);
+        new MctsPlayer(1, 1, 1.4).chooseMove(model, 10);
+    }
+}
@@ -0,0 +1,199 @@
+import cs3500.marblesolitaire.controller.MarbleSolitaireControllerImpl;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.view.FlushPolicy;
+import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
+import cs3500.marblesolitaire.view.OutputSink;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for OutputSink and its flush policies.
+ */
+public class OutputSinkTest {
+
+    /**
+     * A destination that counts how many times output reaches it.
+     */
+    private static class CountingAppendable implements Appendable {
+        private final StringBuilder text = new StringBuilder();
+        private int appends;
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            appends++;
+            text.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            return append(csq.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return append(String.valueOf(c));
+        }
+    }
+
+    /**
+     * Tests that the constructor rejects a capacity that is not positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new OutputSink(new StringBuilder(), FlushPolicy.WHEN_FULL, 0);
+    }
+
+    /**
+     * Tests that output is held until a prompt under EACH_PROMPT.
+     */
+    @Test
+    public void testEachPrompt() throws IOException {
+        CountingAppendable destination = new CountingAppendable();
+        OutputSink sink = new OutputSink(destination, FlushPolicy.EACH_PROMPT);
+
+        sink.append("Score: ").append("32").append('\n');
+        assertEquals(0, destination.appends);
+        assertEquals(10, sink.getBufferedLength());
+
+        sink.prompt();
+        assertEquals(1, destination.appends);
+        assertEquals("Score: 32\n", destination.text.toString());
+
+        sink.prompt();
+        assertEquals(1, destination.appends);
+    }
+
+    /**
+     * Tests that WHEN_FULL passes output on once the buffer fills, and not at prompts.
+     */
+    @Test
+    public void testWhenFull() throws IOException {
+        CountingAppendable destination = new CountingAppendable();
+        OutputSink sink = new OutputSink(destination, FlushPolicy.WHEN_FULL, 8);
+
+        sink.append("abcd");
+        sink.prompt();
+        assertEquals(0, destination.appends);
+        sink.append("efghij", 0, 4);
+        assertEquals(1, destination.appends);
+        assertEquals("abcdefgh", destination.text.toString());
+        assertEquals(0, sink.getBufferedLength());
+    }
+
+    /**
+     * Tests that GAME_END holds everything until the sink is flushed.
+     */
+    @Test
+    public void testGameEnd() throws IOException {
+        CountingAppendable destination = new CountingAppendable();
+        OutputSink sink = new OutputSink(destination, FlushPolicy.GAME_END, 4);
+
+        for (int i = 0; i < 1000; i++) {
+            sink.append("line\n");
+            sink.prompt();
+        }
+        assertEquals(0, destination.appends);
+
+        sink.flush();
+        assertEquals(1, destination.appends);
+        assertEquals(5000, destination.text.length());
+    }
+
+    /**
+     * Tests that a whole turn of the controller reaches the destination at once, before
+     * the controller reads more input, and that the output is the same as unbuffered.
+     */
+    @Test
+    public void testControllerFlushesBeforeReading() {
+        CountingAppendable destination = new CountingAppendable();
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        OutputSink sink = new OutputSink(destination, FlushPolicy.EACH_PROMPT);
+        int[] seenBeforeRead = new int[1];
+        Readable input = new Readable() {
+            private final String[] lines = {"2 4 4 4\n", "q\n"};
+            private int next;
+
+            @Override
+            public int read(CharBuffer cb) {
+                seenBeforeRead[0] = destination.text.length();
+                if (next == lines.length) {
+                    return -1;
+                }
+                cb.put(lines[next++]);
+                return 1;
+            }
+        };
+
+        new MarbleSolitaireControllerImpl(model,
+                new MarbleSolitaireTextView(model, sink), input).playGame();
+
+        StringBuilder unbuffered = new StringBuilder();
+        MarbleSolitaireModel other = new EnglishSolitaireModel();
+        new MarbleSolitaireControllerImpl(other, new MarbleSolitaireTextView(other, unbuffered),
+                new StringReader("2 4 4 4\nq\n")).playGame();
+
+        assertEquals(unbuffered.toString(), destination.text.toString());
+        assertEquals(3, destination.appends);
+        assertTrue(seenBeforeRead[0] > 0);
+        assertEquals(0, sink.getBufferedLength());
+    }
+
+    /**
+     * Tests that output held until the game ends is still written when the input runs
+     * out before the player quits.
+     */
+    @Test
+    public void testGameEndFlushesWhenInputRunsOut() {
+        StringBuilder destination = new StringBuilder();
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        OutputSink sink = new OutputSink(destination, FlushPolicy.GAME_END);
+        try {
+            new MarbleSolitaireControllerImpl(model, new MarbleSolitaireTextView(model, sink),
+                    new StringReader("4 2 4 4\n")).playGame();
+            fail("The controller should run out of input");
+        } catch (IllegalStateException e) {
+            assertEquals("Unable to read input", e.getMessage());
+        }
+
+        assertEquals(0, sink.getBufferedLength());
+        assertTrue(destination.toString().endsWith("O _ _ O O O O\n"
+                + "O O O O O O O\n    O O O\n    O O O\nScore: 31\n"));
+    }
+
+    /**
+     * Tests that a failing destination still makes the controller throw
+     * IllegalStateException.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testFailingDestination() {
+        Appendable failing = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) throws IOException {
+                throw new IOException("Simulated IO failure");
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) throws IOException {
+                throw new IOException("Simulated IO failure");
+            }
+
+            @Override
+            public Appendable append(char c) throws IOException {
+                throw new IOException("Simulated IO failure");
+            }
+        };
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        new MarbleSolitaireControllerImpl(model,
+                new MarbleSolitaireTextView(model, new OutputSink(failing, FlushPolicy.EACH_PROMPT)),
+                new StringReader("q")).playGame();
+    }
+}
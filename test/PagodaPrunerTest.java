@@ -0,0 +1,172 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.Move;
+import cs3500.marblesolitaire.solver.PagodaFunction;
+import cs3500.marblesolitaire.solver.PagodaPruner;
+import cs3500.marblesolitaire.solver.PegSolver;
+import cs3500.marblesolitaire.solver.Positions;
+import cs3500.marblesolitaire.solver.SolverResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for PagodaFunction and PagodaPruner.
+ * Tests the built-in pagoda libraries, incremental value updates and solving for a
+ * given final hole.
+ */
+public class PagodaPrunerTest {
+
+    /**
+     * Tests that every board has a library and no jump increases a function's value.
+     */
+    @Test
+    public void testLibrariesArePagodaFunctions() {
+        MarbleSolitaireModel[] models = {new EnglishSolitaireModel(),
+            new EuropeanSolitaireModel(), new TriangleSolitaireModel()};
+        for (MarbleSolitaireModel model : models) {
+            BoardGeometry geometry = model.getGeometry();
+            List<PagodaFunction> library = PagodaPruner.library(geometry);
+            assertFalse(library.isEmpty());
+            for (PagodaFunction function : library) {
+                for (int j = 0; j < geometry.getJumpCount(); j++) {
+                    assertTrue(function.weight(geometry.jumpFrom(j))
+                            + function.weight(geometry.jumpOver(j))
+                            >= function.weight(geometry.jumpTo(j)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the Fibonacci function of a hole is a pagoda function peaked there.
+     */
+    @Test
+    public void testFibonacciFunction() {
+        BoardGeometry english = new EnglishSolitaireModel().getGeometry();
+        int peak = english.cellIndex(0, 2);
+        PagodaFunction function = PagodaFunction.fibonacci(english, peak);
+        assertEquals(169, function.weight(peak));
+        assertEquals(104, function.weight(english.cellIndex(0, 3)));
+        for (int cell = 0; cell < english.getCellCount(); cell++) {
+            if (english.isValid(cell) && cell != peak) {
+                assertTrue(function.weight(cell) > 0);
+                assertTrue(function.weight(cell) < function.weight(peak));
+            }
+        }
+        // Two marbles that the 0/1 library cannot rule out, but too far apart to meet
+        long position = (1L << english.cellIndex(0, 4)) | (1L << english.cellIndex(3, 2));
+        assertFalse(new PagodaPruner(PagodaPruner.library(english), 1L << peak).isDead(position));
+        assertTrue(PagodaPruner.forGeometry(english, 1L << peak).isDead(position));
+    }
+
+    /**
+     * Tests that Fibonacci functions are only defined on rectangular boards.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFibonacciNeedsRectangularBoard() {
+        BoardGeometry triangle = new TriangleSolitaireModel().getGeometry();
+        PagodaFunction.fibonacci(triangle, triangle.cellIndex(0, 0));
+    }
+
+    /**
+     * Tests that weights a jump could increase are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPagodaWeights() {
+        BoardGeometry triangle = new TriangleSolitaireModel().getGeometry();
+        int[] weights = new int[triangle.getCellCount()];
+        weights[triangle.cellIndex(0, 0)] = 1; // (2,0) -> (0,0) would gain weight
+        new PagodaFunction(triangle, weights);
+    }
+
+    /**
+     * Tests that values updated move by move match values computed from scratch.
+     */
+    @Test
+    public void testIncrementalValuesMatchRecomputed() {
+        MarbleSolitaireModel model = new EuropeanSolitaireModel(3, 3);
+        BoardGeometry geometry = model.getGeometry();
+        List<PagodaFunction> library = new ArrayList<>(PagodaPruner.library(geometry));
+        library.add(PagodaFunction.fibonacci(geometry, geometry.cellIndex(3, 3)));
+        PagodaPruner pruner = new PagodaPruner(library, 1L << geometry.cellIndex(3, 3));
+        int[] values = new int[pruner.getFunctionCount()];
+        SolverResult result = new PegSolver(new EuropeanSolitaireModel(3, 3)).solve(20);
+        assertTrue(result.isSolved());
+        pruner.init(Positions.of(model), values);
+        for (Move move : result.getMoves()) {
+            int jump = geometry.findJump(
+                    geometry.cellIndex(move.getFromRow(), move.getFromCol()),
+                    geometry.cellIndex(move.getToRow(), move.getToCol()));
+            pruner.apply(jump, values);
+            model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+            long position = Positions.of(model);
+            for (int f = 0; f < values.length; f++) {
+                assertEquals(library.get(f).value(position), values[f]);
+            }
+        }
+        for (int i = result.getMoves().size() - 1; i >= 0; i--) {
+            Move move = result.getMoves().get(i);
+            pruner.undo(geometry.findJump(
+                    geometry.cellIndex(move.getFromRow(), move.getFromCol()),
+                    geometry.cellIndex(move.getToRow(), move.getToCol())), values);
+        }
+        long start = Positions.of(new EuropeanSolitaireModel(3, 3));
+        for (int f = 0; f < values.length; f++) {
+            assertEquals(library.get(f).value(start), values[f]);
+        }
+    }
+
+    /**
+     * Tests that a lone marble outside the goal is dead and one in the goal is not.
+     */
+    @Test
+    public void testDeadPositions() {
+        BoardGeometry english = new EnglishSolitaireModel().getGeometry();
+        PagodaPruner pruner = PagodaPruner.forGeometry(english, 1L << english.cellIndex(0, 2));
+        assertTrue(pruner.isDead(1L << english.cellIndex(3, 3)));
+        assertFalse(pruner.isDead(1L << english.cellIndex(0, 2)));
+        assertFalse(pruner.isDead(Positions.of(new EnglishSolitaireModel(0, 2))));
+    }
+
+    /**
+     * Tests solving for a given final hole, replaying the moves on the model.
+     */
+    @Test
+    public void testSolveToHole() {
+        SolverResult result = new PegSolver(new EnglishSolitaireModel()).solveTo(3, 3);
+        assertTrue(result.isSolved());
+        assertTrue(result.getPagodaCuts() > 0);
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        for (Move move : result.getMoves()) {
+            model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+        }
+        assertEquals(1, model.getScore());
+        assertEquals(MarbleSolitaireModel.SlotState.Marble, model.getSlotAt(3, 3));
+    }
+
+    /**
+     * Tests the final holes reachable on the 15-hole triangle from an empty apex.
+     */
+    @Test
+    public void testTriangleFinalHoles() {
+        assertTrue(new PegSolver(new TriangleSolitaireModel()).solveTo(0, 0).isSolved());
+        assertTrue(new PegSolver(new TriangleSolitaireModel()).solveTo(4, 2).isSolved());
+        assertFalse(new PegSolver(new TriangleSolitaireModel()).solveTo(1, 0).isSolved());
+        assertFalse(new PegSolver(new TriangleSolitaireModel()).solveTo(4, 4).isSolved());
+    }
+
+    /**
+     * Tests that the goal hole must be a hole of the board.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testSolveToInvalidHole() {
+        new PegSolver(new EnglishSolitaireModel()).solveTo(0, 0);
+    }
+}
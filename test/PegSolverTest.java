@@ -0,0 +1,181 @@
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.Move;
+import cs3500.marblesolitaire.solver.PegSolver;
+import cs3500.marblesolitaire.solver.SolverResult;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for PegSolver.
+ * Tests that solutions are found, replay correctly on the real models, and that
+ * lost positions are reported as unsolvable.
+ */
+public class PegSolverTest {
+
+    /**
+     * Replays the moves of a result on a model.
+     */
+    private static void replay(MarbleSolitaireModel model, SolverResult result) {
+        for (Move move : result.getMoves()) {
+            model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+        }
+    }
+
+    /**
+     * Tests that the standard English board is solved down to one marble.
+     */
+    @Test
+    public void testSolveEnglishBoard() {
+        SolverResult result = new PegSolver(new EnglishSolitaireModel()).solve();
+        assertTrue(result.isSolved());
+        assertEquals(31, result.getMoves().size());
+        assertTrue(result.getNodes() > 0);
+
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        replay(model, result);
+        assertEquals(1, model.getScore());
+        assertTrue(model.isGameOver());
+    }
+
+    /**
+     * Tests solving from a position part-way through a game.
+     */
+    @Test
+    public void testSolveFromCurrentPosition() {
+        MarbleSolitaireModel model = new TriangleSolitaireModel();
+        model.move(2, 0, 0, 0);
+        model.move(2, 2, 2, 0);
+        SolverResult result = new PegSolver(model).solve();
+        assertTrue(result.isSolved());
+        assertEquals(11, result.getMoves().size());
+        replay(model, result);
+        assertEquals(1, model.getScore());
+    }
+
+    /**
+     * Tests searching for a target marble count other than one.
+     */
+    @Test
+    public void testSolveToTargetCount() {
+        assertFalse(new PegSolver(new TriangleSolitaireModel(3)).solve().isSolved());
+
+        MarbleSolitaireModel model = new TriangleSolitaireModel(3);
+        SolverResult result = new PegSolver(model).solve(2);
+        assertTrue(result.isSolved());
+        replay(model, result);
+        assertEquals(2, model.getScore());
+    }
+
+    /**
+     * Tests that a lost position is refuted and recorded in the transposition table.
+     */
+    @Test
+    public void testUnsolvablePosition() {
+        SolverResult result = new PegSolver(new TriangleSolitaireModel(4)).solve(2);
+        assertFalse(result.isSolved());
+        assertTrue(result.getMoves().isEmpty());
+        assertTrue(result.getTableSize() > 0);
+        assertTrue(result.getTableHits() > 0);
+    }
+
+    /**
+     * Tests that a start whose position class has no final hole is refuted without
+     * searching.
+     */
+    @Test
+    public void testRefutedByPositionClass() {
+        SolverResult triangle = new PegSolver(new TriangleSolitaireModel(4)).solve();
+        assertFalse(triangle.isSolved());
+        assertEquals(0, triangle.getNodes());
+
+        SolverResult european = new PegSolver(new EuropeanSolitaireModel()).solve();
+        assertFalse(european.isSolved());
+        assertTrue(european.getMoves().isEmpty());
+        assertEquals(0, european.getNodes());
+    }
+
+    /**
+     * Tests that a search with a small table stays within it and still solves the board.
+     */
+    @Test
+    public void testBoundedTable() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        SolverResult result = new PegSolver(model).solve(1, 256);
+        assertTrue(result.isSolved());
+        assertTrue(result.getTableSize() <= 256);
+        replay(model, result);
+        assertEquals(1, model.getScore());
+    }
+
+    /**
+     * Tests that the parallel mode finds a solution that replays on the model.
+     */
+    @Test
+    public void testSolveParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SolverResult result = new PegSolver(new EnglishSolitaireModel())
+                    .solveParallel(1, pool, 1 << 16);
+            assertTrue(result.isSolved());
+            MarbleSolitaireModel model = new EnglishSolitaireModel();
+            replay(model, result);
+            assertEquals(1, model.getScore());
+
+            assertFalse(new PegSolver(new TriangleSolitaireModel(4)).solveParallel(1, pool, 1 << 10)
+                    .isSolved());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the parallel mode stays within a small shared table and still solves
+     * the board.
+     */
+    @Test
+    public void testSolveParallelBoundedTable() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            MarbleSolitaireModel model = new EnglishSolitaireModel(2, 3);
+            SolverResult result = new PegSolver(model).solveParallel(1, pool, 256);
+            assertTrue(result.isSolved());
+            assertTrue(result.getTableSize() <= 256);
+            replay(model, result);
+            assertEquals(1, model.getScore());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the solver does not change the model it was given.
+     */
+    @Test
+    public void testSolverLeavesModelUnchanged() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        new PegSolver(model).solve();
+        assertEquals(32, model.getScore());
+    }
+
+    /**
+     * Tests that boards too large to encode in 64 bits are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoardTooLarge() {
+        new PegSolver(new EnglishSolitaireModel(5));
+    }
+
+    /**
+     * Tests that targets below one marble are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTarget() {
+        new PegSolver(new EnglishSolitaireModel()).solve(0);
+    }
+}
@@ -0,0 +1,118 @@
+import cs3500.marblesolitaire.model.hw02.BoardSnapshot;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.simulation.PlayoutBatch;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for PlayoutBatch.
+ * Tests that batched games follow the rules of the models, can be read back as model
+ * states and are reproducible from their seed.
+ */
+public class PlayoutBatchTest {
+
+    /**
+     * Tests that every finished game is a legal end position of a live model.
+     */
+    @Test
+    public void testGamesEndLegally() {
+        PlayoutBatch batch = new PlayoutBatch(new EuropeanSolitaireModel(), 500, 3);
+        long moves = batch.playRandom();
+        assertEquals(0, batch.getLiveCount());
+
+        long total = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            BoardSnapshot state = batch.getState(i);
+            assertEquals(36 - batch.getLength(i), state.getScore());
+            assertEquals(state.getScore(), batch.getScore(i));
+            MarbleSolitaireModel model = state.toModel();
+            assertTrue(model instanceof EuropeanSolitaireModel);
+            assertTrue(model.isGameOver());
+            total += batch.getLength(i);
+        }
+        assertEquals(total, moves);
+    }
+
+    /**
+     * Tests that stepping reaches only positions a model could reach with one move.
+     */
+    @Test
+    public void testStepMakesLegalMoves() {
+        PlayoutBatch batch = new PlayoutBatch(new EnglishSolitaireModel(), 50, 11);
+        BoardSnapshot[] before = new BoardSnapshot[batch.size()];
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < batch.size(); i++) {
+                before[i] = batch.getState(i);
+            }
+            batch.step();
+            for (int i = 0; i < batch.size(); i++) {
+                MarbleSolitaireModel model = before[i].toModel();
+                BoardSnapshot after = batch.getState(i);
+                int[] moves = new int[model.getGeometry().getJumpCount()];
+                int count = model.getLegalMoves(moves);
+                boolean found = false;
+                for (int m = 0; m < count && !found; m++) {
+                    int jump = moves[m];
+                    long[] bits = before[i].getMarbles();
+                    bits[0] ^= (1L << model.getGeometry().jumpFrom(jump))
+                            | (1L << model.getGeometry().jumpOver(jump))
+                            | (1L << model.getGeometry().jumpTo(jump));
+                    found = before[i].withMarbles(bits).equals(after);
+                }
+                assertTrue(found);
+            }
+        }
+    }
+
+    /**
+     * Tests that one seed gives the same games whether stepped or played out.
+     */
+    @Test
+    public void testReproducible() {
+        PlayoutBatch played = new PlayoutBatch(new EnglishSolitaireModel(), 300, 99);
+        PlayoutBatch stepped = new PlayoutBatch(new EnglishSolitaireModel(), 300, 99);
+        played.playRandom();
+        while (stepped.step() > 0) {
+            assertTrue(stepped.getLiveCount() > 0);
+        }
+        for (int i = 0; i < played.size(); i++) {
+            assertEquals(played.getState(i), stepped.getState(i));
+        }
+
+        played.reset();
+        assertEquals(32, played.getScore(0));
+        assertEquals(0, played.getLength(0));
+    }
+
+    /**
+     * Tests that preferring every cell, or only cells that are not holes, is the same
+     * as playing at random.
+     */
+    @Test
+    public void testHeuristic() {
+        EnglishSolitaireModel start = new EnglishSolitaireModel();
+        PlayoutBatch corner = new PlayoutBatch(start, 200, 8);
+        corner.playHeuristic(1L << (start.getGeometry().getCellCount() - 1));
+
+        PlayoutBatch random = new PlayoutBatch(start, 200, 8);
+        PlayoutBatch everything = new PlayoutBatch(start, 200, 8);
+        random.playRandom();
+        everything.playHeuristic(-1L);
+        for (int i = 0; i < random.size(); i++) {
+            assertEquals(random.getState(i), everything.getState(i));
+            assertEquals(random.getState(i), corner.getState(i));
+        }
+    }
+
+    /**
+     * Tests that triangular boards are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTriangleRejected() {
+        new PlayoutBatch(new TriangleSolitaireModel(), 10, 1);
+    }
+}
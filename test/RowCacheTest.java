@@ -0,0 +1,185 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireTextView;
+import cs3500.marblesolitaire.view.MarbleSolitaireTextView;
+import cs3500.marblesolitaire.view.MarbleSolitaireView;
+import cs3500.marblesolitaire.view.RenderMode;
+import cs3500.marblesolitaire.view.RowCache;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for RowCache, through the text views in the cached render modes.
+ */
+public class RowCacheTest {
+
+    /**
+     * A model state that counts how many slots are read from it.
+     */
+    private static class CountingState implements MarbleSolitaireModelState {
+        private final MarbleSolitaireModelState model;
+        private int reads;
+
+        CountingState(MarbleSolitaireModelState model) {
+            this.model = model;
+        }
+
+        @Override
+        public int getBoardSize() {
+            return model.getBoardSize();
+        }
+
+        @Override
+        public SlotState getSlotAt(int row, int col) {
+            reads++;
+            return model.getSlotAt(row, col);
+        }
+
+        @Override
+        public int getScore() {
+            return model.getScore();
+        }
+
+        @Override
+        public BoardGeometry getGeometry() {
+            return model.getGeometry();
+        }
+
+        @Override
+        public long getZobristHash() {
+            return model.getZobristHash();
+        }
+    }
+
+    /**
+     * Tests that a cached view writes the same board as a full one after every move.
+     */
+    @Test
+    public void testCachedMatchesFull() throws IOException {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output, RenderMode.CACHED);
+        int[][] moves = {{1, 3, 3, 3}, {2, 1, 2, 3}, {0, 2, 2, 2}, {2, 3, 2, 1}, {4, 2, 2, 2}};
+
+        view.renderBoard();
+        assertEquals(view.toString(), output.toString());
+        for (int[] move : moves) {
+            model.move(move[0], move[1], move[2], move[3]);
+            view.moveMade(move[0], move[1], move[2], move[3]);
+            output.setLength(0);
+            view.renderBoard();
+            assertEquals(new MarbleSolitaireTextView(model).toString(), output.toString());
+        }
+    }
+
+    /**
+     * Tests that after the first render only the rows a move touched are read again.
+     */
+    @Test
+    public void testOnlyTouchedRowsAreRead() throws IOException {
+        MarbleSolitaireModel model = new EnglishSolitaireModel(31);
+        CountingState counting = new CountingState(model);
+        MarbleSolitaireView view = new MarbleSolitaireTextView(counting, new StringBuilder(),
+                RenderMode.CACHED);
+        view.renderBoard();
+        assertTrue(counting.reads >= 91 * 61);
+
+        counting.reads = 0;
+        model.move(45, 43, 45, 45);
+        view.moveMade(45, 43, 45, 45);
+        view.renderBoard();
+        // One row, read once to find its end and once to format it
+        assertTrue(counting.reads <= 2 * 91);
+
+        counting.reads = 0;
+        view.renderBoard();
+        assertEquals(0, counting.reads);
+    }
+
+    /**
+     * Tests that a change the view was not told about redraws the whole board.
+     */
+    @Test
+    public void testUnreportedChangeRedrawsAll() throws IOException {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output, RenderMode.CACHED);
+        view.renderBoard();
+
+        model.move(1, 3, 3, 3);
+        view.moveMade(1, 3, 3, 3);
+        model.undo();
+        output.setLength(0);
+        view.renderBoard();
+        assertEquals(new MarbleSolitaireTextView(model).toString(), output.toString());
+
+        model.move(3, 1, 3, 3);
+        output.setLength(0);
+        view.renderBoard();
+        assertEquals(new MarbleSolitaireTextView(model).toString(), output.toString());
+    }
+
+    /**
+     * Tests that the ANSI mode draws the board once and then rewrites only changed rows.
+     */
+    @Test
+    public void testAnsiRedrawsChangedRows() throws IOException {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new MarbleSolitaireTextView(model, output, RenderMode.ANSI);
+
+        view.renderBoard();
+        assertEquals("\u001b[r\u001b[H\u001b[2J" + view.toString() + "\u001b[8r\u001b[8;1H",
+                output.toString());
+
+        model.move(1, 3, 3, 3);
+        view.moveMade(1, 3, 3, 3);
+        output.setLength(0);
+        view.renderBoard();
+        assertEquals("\u001b7"
+                + "\u001b[2;1H\u001b[2K    O _ O"
+                + "\u001b[3;1H\u001b[2KO O O _ O O O"
+                + "\u001b[4;1H\u001b[2KO O O O O O O"
+                + "\u001b8", output.toString());
+
+        output.setLength(0);
+        view.renderBoard();
+        assertEquals("", output.toString());
+    }
+
+    /**
+     * Tests that a cached triangle view follows moves along every direction.
+     */
+    @Test
+    public void testCachedTriangle() throws IOException {
+        MarbleSolitaireModel model = new TriangleSolitaireModel();
+        StringBuilder output = new StringBuilder();
+        MarbleSolitaireView view = new TriangleSolitaireTextView(model, output, RenderMode.CACHED);
+        int[][] moves = {{2, 0, 0, 0}, {2, 2, 2, 0}, {0, 0, 2, 2}, {3, 0, 1, 0}};
+
+        view.renderBoard();
+        for (int[] move : moves) {
+            model.move(move[0], move[1], move[2], move[3]);
+            view.moveMade(move[0], move[1], move[2], move[3]);
+            output.setLength(0);
+            view.renderBoard();
+            assertEquals(new TriangleSolitaireTextView(model).toString(), output.toString());
+        }
+    }
+
+    /**
+     * Tests that a cache cannot be made for the full render mode.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFullModeRejected() {
+        MarbleSolitaireModel model = new EnglishSolitaireModel();
+        new RowCache(model, (row, out) -> { }, RenderMode.FULL);
+    }
+}
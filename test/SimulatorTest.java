@@ -0,0 +1,91 @@
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.simulation.PlayoutPolicy;
+import cs3500.marblesolitaire.simulation.SimulationResult;
+import cs3500.marblesolitaire.simulation.Simulator;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for Simulator.
+ * Tests that simulations are reproducible from their seed whatever the number of
+ * threads, and that the histograms account for every game.
+ */
+public class SimulatorTest {
+
+    /**
+     * Tests that one seed gives the same histograms on one thread and on several.
+     */
+    @Test
+    public void testReproducibleAcrossThreads() {
+        Simulator simulator = new Simulator(new EuropeanSolitaireModel());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            SimulationResult first = simulator.run(1000, 42, single);
+            SimulationResult second = simulator.run(1000, 42, several);
+            assertArrayEquals(first.getScoreHistogram(), second.getScoreHistogram());
+            assertArrayEquals(first.getLengthHistogram(), second.getLengthHistogram());
+
+            SimulationResult other = simulator.run(1000, 43, several);
+            assertFalse(java.util.Arrays.equals(first.getScoreHistogram(),
+                    other.getScoreHistogram()));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    /**
+     * Tests that every game is counted once in each histogram, and that a game of n
+     * moves ends with n fewer marbles.
+     */
+    @Test
+    public void testHistogramsCountEveryGame() {
+        SimulationResult result = new Simulator(new EnglishSolitaireModel()).run(700, 7);
+        assertEquals(700, result.getGames());
+        long scores = 0;
+        long lengths = 0;
+        for (int i = 0; i <= 32; i++) {
+            scores += result.getScoreCount(i);
+            lengths += result.getLengthCount(i);
+            assertEquals(result.getScoreCount(32 - i), result.getLengthCount(i));
+        }
+        assertEquals(700, scores);
+        assertEquals(700, lengths);
+        assertEquals(0, result.getScoreCount(0));
+        assertEquals(1.0, result.fractionAtMost(32), 1e-9);
+        assertTrue(result.getMeanScore() > 1 && result.getMeanScore() < 32);
+    }
+
+    /**
+     * Tests that a deterministic policy plays the same game every time.
+     */
+    @Test
+    public void testPolicy() {
+        PlayoutPolicy first = (state, moves, count, random) -> moves[0];
+        SimulationResult result = new Simulator(new TriangleSolitaireModel(), first).run(300, 1);
+        int ended = 0;
+        for (int s = 0; s <= 14; s++) {
+            if (result.getScoreCount(s) > 0) {
+                assertEquals(300, result.getScoreCount(s));
+                ended++;
+            }
+        }
+        assertEquals(1, ended);
+    }
+
+    /**
+     * Tests that no games gives an empty result.
+     */
+    @Test
+    public void testNoGames() {
+        SimulationResult result = new Simulator(new EnglishSolitaireModel()).run(0, 1);
+        assertEquals(0, result.getGames());
+        assertEquals(0, result.fractionAtMost(32), 0);
+    }
+}
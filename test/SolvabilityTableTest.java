@@ -0,0 +1,123 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModelState.SlotState;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.PegSolver;
+import cs3500.marblesolitaire.solver.Positions;
+import cs3500.marblesolitaire.solver.SolvabilityTable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for SolvabilityTable.
+ * Tests generated tables of small triangular boards against the solver, and that
+ * tables are only opened for the board they were built for.
+ */
+public class SolvabilityTableTest {
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("solvability", ".bin");
+        pool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Tests every start hole of the 10 and 15 hole triangles against the solver.
+     */
+    @Test
+    public void testStartPositionsMatchSolver() throws IOException {
+        for (int size = 4; size <= 5; size++) {
+            SolvabilityTable table = SolvabilityTable.generate(
+                    new TriangleSolitaireModel(size).getGeometry(), file, pool);
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c <= r; c++) {
+                    MarbleSolitaireModel model = new TriangleSolitaireModel(size, r, c);
+                    assertEquals(new PegSolver(model).solve().isSolved(), table.isSolvable(model));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests positions along random games on the 21 hole triangle against the solver.
+     */
+    @Test
+    public void testRandomGamesMatchSolver() throws IOException {
+        BoardGeometry geometry = new TriangleSolitaireModel(6).getGeometry();
+        SolvabilityTable.generate(geometry, file, pool);
+        SolvabilityTable table = SolvabilityTable.open(file, geometry);
+        Random random = new Random(7);
+        for (int game = 0; game < 5; game++) {
+            MarbleSolitaireModel model = new TriangleSolitaireModel(6, random.nextInt(6), 0);
+            while (!model.isGameOver()) {
+                assertEquals(new PegSolver(model).solve().isSolved(),
+                        table.isSolvable(Positions.of(model)));
+                List<Integer> legal = new ArrayList<>();
+                for (int j = 0; j < geometry.getJumpCount(); j++) {
+                    if (slot(model, geometry, geometry.jumpFrom(j)) == SlotState.Marble
+                            && slot(model, geometry, geometry.jumpOver(j)) == SlotState.Marble
+                            && slot(model, geometry, geometry.jumpTo(j)) == SlotState.Empty) {
+                        legal.add(j);
+                    }
+                }
+                int jump = legal.get(random.nextInt(legal.size()));
+                model.move(geometry.row(geometry.jumpFrom(jump)),
+                        geometry.col(geometry.jumpFrom(jump)),
+                        geometry.row(geometry.jumpTo(jump)), geometry.col(geometry.jumpTo(jump)));
+            }
+            assertEquals(model.getScore() == 1, table.isSolvable(model));
+        }
+    }
+
+    private static SlotState slot(MarbleSolitaireModel model, BoardGeometry geometry, int cell) {
+        return model.getSlotAt(geometry.row(cell), geometry.col(cell));
+    }
+
+    /**
+     * Tests that a table cannot be opened for another board.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOpenForWrongBoard() throws IOException {
+        SolvabilityTable.generate(new TriangleSolitaireModel().getGeometry(), file, pool);
+        SolvabilityTable.open(file, new TriangleSolitaireModel(6).getGeometry());
+    }
+
+    /**
+     * Tests that games on another board are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameOnWrongBoard() throws IOException {
+        SolvabilityTable table = SolvabilityTable.generate(
+                new TriangleSolitaireModel().getGeometry(), file, pool);
+        table.isSolvable(new EnglishSolitaireModel());
+    }
+
+    /**
+     * Tests that boards with more than 33 holes are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyHoles() throws IOException {
+        SolvabilityTable.generate(new EuropeanSolitaireModel().getGeometry(), file, pool);
+    }
+}
@@ -0,0 +1,163 @@
+import cs3500.marblesolitaire.model.hw02.BoardGeometry;
+import cs3500.marblesolitaire.model.hw02.EnglishSolitaireModel;
+import cs3500.marblesolitaire.model.hw02.MarbleSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.EuropeanSolitaireModel;
+import cs3500.marblesolitaire.model.hw04.TriangleSolitaireModel;
+import cs3500.marblesolitaire.solver.Move;
+import cs3500.marblesolitaire.solver.PegSolver;
+import cs3500.marblesolitaire.solver.SolvabilityTable;
+import cs3500.marblesolitaire.solver.SolverResult;
+import cs3500.marblesolitaire.solver.Tablebase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for Tablebase.
+ * Tests generated tablebases against the full solvability table, lazy loading of
+ * marble counts and finishing solver searches with a tablebase.
+ */
+public class TablebaseTest {
+    private Path directory;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tablebase");
+        pool = new ForkJoinPool(2);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Tests every position of the 15 hole triangle against the solvability table.
+     */
+    @Test
+    public void testMatchesSolvabilityTable() throws IOException {
+        BoardGeometry geometry = new TriangleSolitaireModel().getGeometry();
+        Tablebase tablebase = Tablebase.generate(geometry, 15, directory, pool);
+        SolvabilityTable table = SolvabilityTable.generate(geometry,
+                directory.resolve("table.bin"), pool);
+        assertEquals(1, tablebase.getPositionCount(15));
+        assertEquals(455, tablebase.getPositionCount(3));
+        for (int marbles = 0; marbles < 1 << 15; marbles++) {
+            long position = 0;
+            for (int hole = 0; hole < 15; hole++) {
+                if ((marbles & (1 << hole)) != 0) {
+                    position |= 1L << hole; // triangle holes are numbered like cells
+                }
+            }
+            assertEquals(table.isSolvable(position), tablebase.isSolvable(position));
+        }
+    }
+
+    /**
+     * Tests that a reopened tablebase only reads the files it needs.
+     */
+    @Test
+    public void testFilesAreLoadedLazily() throws IOException {
+        BoardGeometry geometry = new EuropeanSolitaireModel().getGeometry();
+        Tablebase.generate(geometry, 4, directory, pool);
+        Tablebase tablebase = Tablebase.open(directory, geometry, 4);
+        Files.write(directory.resolve("marbles-4.bin"), new byte[]{1, 2, 3});
+
+        long two = (1L << geometry.cellIndex(3, 3)) | (1L << geometry.cellIndex(3, 4));
+        long apart = (1L << geometry.cellIndex(0, 2)) | (1L << geometry.cellIndex(6, 4));
+        assertTrue(tablebase.isSolvable(two));
+        assertFalse(tablebase.isSolvable(apart));
+        try {
+            tablebase.isSolvable(two | apart);
+            fail("Corrupt file should not be read");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that positions with more marbles than the tablebase covers are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyMarbles() throws IOException {
+        Tablebase tablebase = Tablebase.generate(new TriangleSolitaireModel().getGeometry(), 3,
+                directory, pool);
+        tablebase.isSolvable(new TriangleSolitaireModel());
+    }
+
+    /**
+     * Tests that games on another board of the same size are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameOnWrongBoard() throws IOException {
+        Tablebase tablebase = Tablebase.generate(new EnglishSolitaireModel().getGeometry(), 2,
+                directory, pool);
+        MarbleSolitaireModel european = new EuropeanSolitaireModel();
+        tablebase.isSolvable(european);
+    }
+
+    /**
+     * Tests that a European game of size 7 with few enough marbles is not read as a
+     * game on the English board of the same size.
+     */
+    @Test
+    public void testSmallEuropeanGameOnEnglishBoard() throws IOException {
+        Tablebase tablebase = Tablebase.generate(new EnglishSolitaireModel().getGeometry(), 2,
+                directory, pool);
+        MarbleSolitaireModel european = new EuropeanSolitaireModel(2, 0);
+        SolverResult result = new PegSolver(european).solve(2);
+        assertTrue(result.isSolved());
+        for (Move move : result.getMoves()) {
+            european.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+        }
+        assertEquals(7, european.getBoardSize());
+        assertEquals(2, european.getScore());
+        try {
+            tablebase.isSolvable(european);
+            fail("A European game should be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Game is not on the board of this tablebase", e.getMessage());
+        }
+    }
+
+    /**
+     * Tests that a missing tablebase cannot be opened.
+     */
+    @Test(expected = IOException.class)
+    public void testOpenMissing() throws IOException {
+        Tablebase.open(directory, new EnglishSolitaireModel().getGeometry(), 4);
+    }
+
+    /**
+     * Tests that the solver finishes its search with the tablebase.
+     */
+    @Test
+    public void testSolverUsesTablebase() throws IOException {
+        MarbleSolitaireModel model = new TriangleSolitaireModel(6, 0, 0);
+        Tablebase tablebase = Tablebase.generate(model.getGeometry(), 8, directory, pool);
+        SolverResult plain = new PegSolver(model).solve();
+        SolverResult result = new PegSolver(model, tablebase).solve();
+        assertEquals(plain.isSolved(), result.isSolved());
+        assertTrue(result.getEndgameCuts() > 0);
+        assertTrue(result.getNodes() < plain.getNodes());
+        for (Move move : result.getMoves()) {
+            model.move(move.getFromRow(), move.getFromCol(), move.getToRow(), move.getToCol());
+        }
+        assertEquals(1, model.getScore());
+    }
+}